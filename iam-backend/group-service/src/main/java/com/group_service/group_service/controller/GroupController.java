@@ -2,20 +2,28 @@
 package com.group_service.group_service.controller;
 
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.group_service.group_service.dto.BatchRequestDto;
+import com.group_service.group_service.dto.BatchResponseDto;
+import com.group_service.group_service.dto.CursorPageResponse;
+import com.group_service.group_service.dto.GroupPatchDto;
 import com.group_service.group_service.dto.GroupRequestDto;
 import com.group_service.group_service.dto.GroupResponseDto;
+import com.group_service.group_service.dto.PageResponse;
 import com.group_service.group_service.entity.Group;
 import com.group_service.group_service.exception.GroupNotFoundException;
 import com.group_service.group_service.service.GroupService;
@@ -58,6 +66,16 @@ public Mono<ResponseEntity<GroupResponseDto>> createGroup(@Valid @RequestBody Gr
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
+    /**
+     * Get many groups by ID in one query.
+     * POST /api/groups/batch  {"ids": [1, 2, 3]} -> found by id, plus the ids that do not exist.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResponseDto<GroupResponseDto>>> getGroupsBatch(@Valid @RequestBody BatchRequestDto requestDto) {
+        return groupService.getGroupsByIds(requestDto.getIds())
+                .map(ResponseEntity::ok);
+    }
+
     /**
      * Update an existing group (full update / PUT).
      * Returns 200 OK with updated resource or 404 if not found.
@@ -71,6 +89,19 @@ public Mono<ResponseEntity<GroupResponseDto>> createGroup(@Valid @RequestBody Gr
                 .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
     }
 
+    /**
+     * Partially update a group (PATCH).
+     * Body holds only the changed fields plus the version last read.
+     * Returns 200 OK, 400 without a version, 404 if not found, 409 if the version is stale.
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<GroupResponseDto>> patchGroup(
+            @PathVariable Long id,
+            @Valid @RequestBody GroupPatchDto patchDto) {
+        return groupService.patchGroup(id, patchDto)
+                .map(ResponseEntity::ok);
+    }
+
     /**
      * Delete a group by ID.
      * Returns 204 No Content on success, 404 Not Found if it doesn't exist.
@@ -93,11 +124,65 @@ public Mono<ResponseEntity<GroupResponseDto>> createGroup(@Valid @RequestBody Gr
         return groupService.getAllGroups();
     }
 
+    /**
+     * All groups of an organization, as a JSON array.
+     * Large organizations should page with ?page= or ?cursor= (below).
+     */
     @GetMapping("/byOrg/{orgId}")
     public Flux<Group> getGroupsByOrg(@PathVariable Long orgId) {
         return groupService.getGroupsByOrg(orgId);
     }
 
+    /**
+     * One page of an organization's groups, ordered by groupId.
+     * GET /api/groups/byOrg/{orgId}?page=0&size=20&status=ACTIVE
+     */
+    @GetMapping(value = "/byOrg/{orgId}", params = "page")
+    public Mono<PageResponse<GroupResponseDto>> getGroupsByOrgPage(
+            @PathVariable Long orgId,
+            @RequestParam(required = false) String status,
+            @RequestParam int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return groupService.getGroupsByOrgPage(orgId, status, page, size);
+    }
+
+    /**
+     * Keyset listing for large organizations: send an empty cursor first, then nextCursor.
+     * GET /api/groups/byOrg/{orgId}?cursor=&size=100&status=ACTIVE
+     */
+    @GetMapping(value = "/byOrg/{orgId}", params = "cursor")
+    public Mono<CursorPageResponse<GroupResponseDto>> getGroupsByOrgAfter(
+            @PathVariable Long orgId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "20") int size) {
+        return groupService.getGroupsByOrgAfter(orgId, status, cursor, size);
+    }
+
+    /**
+     * Groups that allow a role (GIN-indexed containment query).
+     */
+    @GetMapping("/byRole/{roleId}")
+    public Flux<GroupResponseDto> getGroupsByRole(@PathVariable Long roleId) {
+        return groupService.getGroupsByRole(roleId);
+    }
+
+    /**
+     * Ids of the groups that allow a role, from the in-memory role index.
+     */
+    @GetMapping("/byRole/{roleId}/ids")
+    public Mono<List<Long>> getGroupIdsByRole(@PathVariable Long roleId) {
+        return groupService.getGroupIdsByRole(roleId);
+    }
+
+    /**
+     * Union of the roles allowed by the given groups, e.g. /api/groups/allowedRoles?groupIds=1,2,3
+     */
+    @GetMapping("/allowedRoles")
+    public Mono<List<Long>> getAllowedRoleIds(@RequestParam List<Long> groupIds) {
+        return groupService.getAllowedRoleIds(groupIds);
+    }
+
 
 }
 
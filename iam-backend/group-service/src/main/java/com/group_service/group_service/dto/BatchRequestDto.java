@@ -0,0 +1,12 @@
+package com.group_service.group_service.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BatchRequestDto {
+    @NotNull(message = "ids is required")
+    private List<Long> ids;
+}
@@ -0,0 +1,14 @@
+package com.group_service.group_service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a batch lookup: found is keyed by id in request order,
+ * missing lists the requested ids with no row.
+ */
+public record BatchResponseDto<T>(
+        Map<Long, T> found,
+        List<Long> missing
+) {
+}
@@ -0,0 +1,14 @@
+package com.group_service.group_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing ordered by groupId.
+ * nextCursor is opaque; pass it back as the cursor param, null on the last page.
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor
+) {
+}
@@ -0,0 +1,32 @@
+
+package com.group_service.group_service.dto;
+
+import lombok.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Partial update of a group. Null fields are left unchanged;
+ * version must match the current row or the update is rejected with 409.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GroupPatchDto {
+
+    @Size(max = 255, message = "Group name cannot exceed 255 characters")
+    private String name;
+
+    @Size(max = 1000, message = "Description cannot exceed 1000 characters")
+    private String description;
+
+    private String status;
+
+    private List<Long> allowedRoleIds;
+
+    @NotNull(message = "Version is required")
+    private Long version;
+}
@@ -29,4 +29,6 @@ public class GroupResponseDto {
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
+
+    private Long version;
 }
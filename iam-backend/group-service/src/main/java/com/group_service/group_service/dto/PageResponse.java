@@ -0,0 +1,16 @@
+package com.group_service.group_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of an offset listing; hasNext comes from fetching one extra row.
+ */
+public record PageResponse<T>(
+        List<T> content,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean hasNext
+) {
+}
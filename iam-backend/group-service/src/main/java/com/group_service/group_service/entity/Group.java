@@ -2,6 +2,7 @@
 package com.group_service.group_service.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 import lombok.*;
@@ -41,6 +42,10 @@ public class Group {
     @Column("updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column("version")
+    private Long version; // optimistic locking, bumped on every update
+
     // -------------------------
     // Mutator methods (setters)
     // -------------------------
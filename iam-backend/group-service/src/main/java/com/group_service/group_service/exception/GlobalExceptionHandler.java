@@ -6,7 +6,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
@@ -31,6 +33,19 @@ public class GlobalExceptionHandler {
                 .body(errorResponse(HttpStatus.BAD_REQUEST, "Validation failed", details)));
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handleConflict(OptimisticLockingFailureException ex) {
+        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(errorResponse(HttpStatus.CONFLICT, ex.getMessage())));
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public Mono<ResponseEntity<Map<String, Object>>> handleStatus(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        return Mono.just(ResponseEntity.status(status)
+                .body(errorResponse(status, ex.getReason() != null ? ex.getReason() : status.getReasonPhrase())));
+    }
+
     @ExceptionHandler(DataAccessException.class)
     public Mono<ResponseEntity<Map<String, Object>>> handleDatabaseErrors(DataAccessException ex) {
         return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,77 @@
+package com.group_service.group_service.health;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.group_service.group_service.repository.GroupRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Number of groups, counted in the background every app.health.group-count.refresh-interval
+ * and served from memory, so health probes never run COUNT(*) themselves.
+ * A failed refresh keeps the last value; {@link #current()} is null until the first count.
+ */
+@Slf4j
+@Component
+public class GroupCountStatistic {
+
+    public record Count(long groups, Instant asOf) {}
+
+    private final GroupRepository groupRepository;
+    private final Duration refreshInterval;
+
+    private volatile Count current;
+    private Disposable refresher;
+
+    public GroupCountStatistic(GroupRepository groupRepository,
+                               MeterRegistry registry,
+                               @Value("${app.health.group-count.refresh-interval:1m}") Duration refreshInterval) {
+        this.groupRepository = groupRepository;
+        this.refreshInterval = refreshInterval;
+
+        Gauge.builder("group.groups.count", this, s -> s.current == null ? Double.NaN : s.current.groups())
+                .description("Number of groups, as of the last background count")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(e -> {
+                            log.warn("GroupCountStatistic: count failed, keeping the previous value", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public Count current() {
+        return current;
+    }
+
+    Mono<Count> refresh() {
+        return groupRepository.count()
+                .map(groups -> new Count(groups, Instant.now()))
+                .doOnNext(count -> current = count);
+    }
+}
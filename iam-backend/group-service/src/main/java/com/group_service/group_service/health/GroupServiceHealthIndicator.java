@@ -1,30 +1,80 @@
-
 package com.group_service.group_service.health;
 
-import com.group_service.group_service.repository.GroupRepository;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import reactor.core.publisher.Mono;
 
+/**
+ * Liveness / readiness: one round trip with the pool's validation query (SELECT 1),
+ * bounded by app.health.probe-timeout and timed as group.health.db.probe{outcome}.
+ * The group count is reported from {@link GroupCountStatistic}, never queried here.
+ */
 @Component
 public class GroupServiceHealthIndicator implements ReactiveHealthIndicator {
 
-    private final GroupRepository groupRepository;
+    private final DatabaseClient databaseClient;
+    private final GroupCountStatistic groupCount;
+    private final MeterRegistry registry;
+    private final String validationQuery;
+    private final Duration probeTimeout;
 
-    public GroupServiceHealthIndicator(GroupRepository groupRepository) {
-        this.groupRepository = groupRepository;
+    public GroupServiceHealthIndicator(DatabaseClient databaseClient,
+                                       GroupCountStatistic groupCount,
+                                       MeterRegistry registry,
+                                       @Value("${spring.r2dbc.pool.validation-query:SELECT 1}") String validationQuery,
+                                       @Value("${app.health.probe-timeout:2s}") Duration probeTimeout) {
+        this.databaseClient = databaseClient;
+        this.groupCount = groupCount;
+        this.registry = registry;
+        this.validationQuery = validationQuery;
+        this.probeTimeout = probeTimeout;
     }
 
     @Override
     public Mono<Health> health() {
-        return groupRepository.count()
-                .map(count -> Health.up()
-                        .withDetail("GroupCount", count)
-                        .withDetail("Database", "Accessible")
-                        .build())
-                .onErrorResume(e -> Mono.just(Health.down()
-                        .withDetail("Error", e.getMessage())
-                        .build()));
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return databaseClient.sql(validationQuery)
+                    .map(row -> 1)
+                    .first()
+                    .timeout(probeTimeout)
+                    .map(ok -> {
+                        long nanos = sample.stop(probeTimer("up"));
+                        return withGroupCount(Health.up()
+                                .withDetail("Database", "Accessible")
+                                .withDetail("ProbeMillis", Duration.ofNanos(nanos).toMillis()))
+                                .build();
+                    })
+                    .onErrorResume(e -> {
+                        sample.stop(probeTimer("down"));
+                        return Mono.just(withGroupCount(Health.down()
+                                .withDetail("Error", String.valueOf(e.getMessage())))
+                                .build());
+                    });
+        });
+    }
+
+    private Health.Builder withGroupCount(Health.Builder builder) {
+        GroupCountStatistic.Count count = groupCount.current();
+        if (count != null) {
+            builder.withDetail("GroupCount", count.groups())
+                    .withDetail("GroupCountAsOf", count.asOf().toString());
+        }
+        return builder;
+    }
+
+    private Timer probeTimer(String outcome) {
+        return Timer.builder("group.health.db.probe")
+                .tag("outcome", outcome)
+                .description("Latency of the health check database probe")
+                .register(registry);
     }
 }
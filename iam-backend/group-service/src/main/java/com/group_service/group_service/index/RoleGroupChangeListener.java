@@ -0,0 +1,125 @@
+package com.group_service.group_service.index;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Change feed for RoleGroupIndex: the groups trigger (schema.sql) sends NOTIFY with the group_id
+ * of every insert, delete and allowed_role_ids update, and every replica LISTENs on a dedicated
+ * connection outside the pool. Notified groups are re-read and applied in small batches.
+ * While the connection is down the index is bypassed; after a (re)connect it is rebuilt, since
+ * notifications may have been missed.
+ */
+@Slf4j
+@Component
+public class RoleGroupChangeListener {
+
+    static final String CHANNEL = "groups_roles_changed";
+
+    private final ConnectionFactory connectionFactory;
+    private final RoleGroupIndex roleGroupIndex;
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final Counter notifications;
+
+    private Disposable subscription;
+
+    public RoleGroupChangeListener(R2dbcProperties properties,
+                                   RoleGroupIndex roleGroupIndex,
+                                   MeterRegistry registry) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+                .build();
+        this.connectionFactory = ConnectionFactories.get(options);
+        this.roleGroupIndex = roleGroupIndex;
+
+        this.notifications = Counter.builder("group.role_index.notifications")
+                .description("groups role change notifications received")
+                .register(registry);
+        Gauge.builder("group.role_index.listener.connected", connected, c -> c.get() ? 1 : 0)
+                .description("1 while LISTENing for groups role changes")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.usingWhen(connectionFactory.create(), this::listen, Connection::close)
+                .bufferTimeout(256, Duration.ofMillis(100))
+                .concatMap(this::apply)
+                .doOnError(e -> {
+                    lost();
+                    log.warn("RoleGroupChangeListener: connection lost, reconnecting: {}", e.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .doOnComplete(this::lost)
+                .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private void lost() {
+        connected.set(false);
+        roleGroupIndex.changeFeedLost();
+    }
+
+    private Flux<Long> listen(Connection connection) {
+        PostgresqlConnection pg = (PostgresqlConnection) connection;
+        return pg.createStatement("LISTEN " + CHANNEL).execute()
+                .flatMap(result -> result.getRowsUpdated())
+                .then(Mono.fromRunnable(() -> {
+                    connected.set(true);
+                    roleGroupIndex.changeFeedResumed();
+                    log.info("RoleGroupChangeListener: listening on {}", CHANNEL);
+                }))
+                .thenMany(pg.getNotifications())
+                .mapNotNull(notification -> parseGroupId(notification.getParameter()));
+    }
+
+    private Mono<Void> apply(List<Long> changed) {
+        notifications.increment(changed.size());
+        return roleGroupIndex.refresh(Set.copyOf(changed))
+                .onErrorResume(e -> {
+                    // the index may now miss this change: stop serving it until a rebuild has caught up
+                    log.warn("RoleGroupChangeListener: failed to refresh groups {}: {}", changed, e.getMessage());
+                    roleGroupIndex.changeFeedResumed();
+                    return Mono.empty();
+                });
+    }
+
+    private static Long parseGroupId(String payload) {
+        try {
+            return Long.valueOf(payload);
+        } catch (NumberFormatException e) {
+            log.warn("RoleGroupChangeListener: ignoring notification payload '{}'", payload);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.group_service.group_service.index;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-memory inverted index over groups.allowed_role_ids, in both directions:
+ * role -> groups allowing it, and group -> allowed roles (for role unions over a set of groups).
+ * Ids are kept in compressed (Roaring) bitmaps.
+ *
+ * Published bitmaps are never modified, so lookups take no lock. Writers (create / update /
+ * delete in GroupServiceImpl) copy only the bitmaps of the roles and the group they touch and
+ * swap them into the concurrent maps; a lookup over several keys may see a concurrent write
+ * on some of them but never a half-written bitmap.
+ *
+ * Writes made by other replicas arrive through RoleGroupChangeListener (NOTIFY from the groups
+ * trigger) and are applied with {@link #refresh}, so they show up within the notification
+ * latency. While that feed is disconnected, and until the rebuild that follows its reconnect
+ * has finished, {@link #isReady()} is false and callers use the database; a revoked role is
+ * never served from a stale index. The whole index is also rebuilt at startup and every
+ * app.role-index.refresh-interval as a safety net; local writes made while a rebuild reads
+ * the table are replayed onto the rebuilt maps.
+ */
+@Slf4j
+@Component
+public class RoleGroupIndex {
+
+    private record Snapshot(Map<Long, Roaring64Bitmap> groupsByRole, Map<Long, Roaring64Bitmap> rolesByGroup) {
+
+        static Snapshot empty() {
+            return new Snapshot(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private final DatabaseClient databaseClient;
+    private final Duration refreshInterval;
+    private final Timer buildTimer;
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+    private volatile boolean ready;
+    // false while the change feed is down: other replicas' writes may be missing
+    private volatile boolean following = true;
+    // bumped by every feed reconnect; only a rebuild started after the latest one makes the index ready (guarded by this)
+    private long resyncs;
+    private long rebuildStartedAt;
+    private final Sinks.Many<Long> rebuildRequests = Sinks.many().unicast().onBackpressureBuffer();
+    // group -> allowed roles written locally while a rebuild runs (guarded by this), replayed onto it
+    private Map<Long, Roaring64Bitmap> writtenDuringRebuild;
+    private Disposable refresher;
+
+    public RoleGroupIndex(DatabaseClient databaseClient,
+                          MeterRegistry registry,
+                          @Value("${app.role-index.refresh-interval:5m}") Duration refreshInterval) {
+        this.databaseClient = databaseClient;
+        this.refreshInterval = refreshInterval;
+
+        Gauge.builder("group.role_index.roles", this, i -> i.snapshot.groupsByRole().size())
+                .description("Roles allowed by at least one group")
+                .register(registry);
+        Gauge.builder("group.role_index.groups", this, i -> i.snapshot.rolesByGroup().size())
+                .description("Groups with at least one allowed role")
+                .register(registry);
+        this.buildTimer = Timer.builder("group.role_index.build")
+                .description("Time to rebuild the role -> group index from groups")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // periodic and requested rebuilds run one at a time; requests made meanwhile collapse into one more
+        refresher = Flux.merge(Flux.interval(Duration.ZERO, refreshInterval), rebuildRequests.asFlux())
+                .onBackpressureLatest()
+                .concatMap(tick -> rebuild()
+                        .onErrorResume(e -> {
+                            log.error("RoleGroupIndex: rebuild failed, keeping the previous index", e);
+                            return Mono.empty();
+                        }), 0)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public boolean isReady() {
+        return ready && following;
+    }
+
+    /** The change feed dropped: serve from the database until it is back and resynced. */
+    public void changeFeedLost() {
+        following = false;
+    }
+
+    /**
+     * The change feed (re)connected. Notifications may have been missed, so the index is
+     * rebuilt and only served again once a rebuild started after this call has finished.
+     */
+    public synchronized void changeFeedResumed() {
+        resyncs++;
+        ready = false;
+        following = true;
+        rebuildRequests.tryEmitNext(resyncs);
+    }
+
+    /**
+     * Re-reads the given groups from the database and applies their current allowed roles;
+     * groups that no longer exist are removed. Used for changes notified by other replicas.
+     */
+    public Mono<Void> refresh(Collection<Long> groupIds) {
+        Set<Long> missing = new HashSet<>(groupIds);
+        return databaseClient.sql("SELECT group_id, allowed_role_ids FROM groups WHERE group_id = ANY(:ids)")
+                .bind("ids", groupIds.toArray(Long[]::new))
+                .map(row -> Map.entry(row.get("group_id", Long.class), Optional.ofNullable(row.get("allowed_role_ids", Long[].class))))
+                .all()
+                .doOnNext(row -> {
+                    missing.remove(row.getKey());
+                    put(row.getKey(), Arrays.asList(row.getValue().orElse(new Long[0])));
+                })
+                .then(Mono.fromRunnable(() -> missing.forEach(this::remove)));
+    }
+
+    /** Ids of the groups whose allowed_role_ids contain roleId, ascending. */
+    public long[] groupsForRole(long roleId) {
+        Roaring64Bitmap groups = groupsBitmap(roleId);
+        return groups == null ? new long[0] : groups.toArray();
+    }
+
+    /** Union of the allowed roles of the given groups, ascending. */
+    public long[] rolesForGroups(Collection<Long> groupIds) {
+        Map<Long, Roaring64Bitmap> rolesByGroup = snapshot.rolesByGroup();
+        Roaring64Bitmap union = new Roaring64Bitmap();
+        for (Long groupId : groupIds) {
+            Roaring64Bitmap roles = rolesByGroup.get(groupId);
+            if (roles != null) {
+                union.or(roles);
+            }
+        }
+        return union.toArray();
+    }
+
+    // the published bitmap itself, for tests
+    Roaring64Bitmap groupsBitmap(long roleId) {
+        return snapshot.groupsByRole().get(roleId);
+    }
+
+    /** Add or replace a group's allowed roles. */
+    public synchronized void put(long groupId, List<Long> roleIds) {
+        Roaring64Bitmap roles = bitmapOf(roleIds);
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.put(groupId, roles);
+        }
+        apply(snapshot, groupId, roles);
+    }
+
+    public void remove(long groupId) {
+        put(groupId, List.of());
+    }
+
+    // copy-on-write per key: only the group's entry and the bitmaps of roles it gained or lost are replaced
+    private static void apply(Snapshot target, long groupId, Roaring64Bitmap roles) {
+        Roaring64Bitmap previous = roles.isEmpty()
+                ? target.rolesByGroup().remove(groupId)
+                : target.rolesByGroup().put(groupId, roles);
+
+        if (previous != null) {
+            for (long roleId : previous.toArray()) {
+                if (!roles.contains(roleId)) {
+                    removeFrom(target.groupsByRole(), roleId, groupId);
+                }
+            }
+        }
+        for (long roleId : roles.toArray()) {
+            if (previous == null || !previous.contains(roleId)) {
+                addTo(target.groupsByRole(), roleId, groupId);
+            }
+        }
+    }
+
+    private Mono<Void> rebuild() {
+        long start = System.nanoTime();
+        beginRebuild();
+        return databaseClient.sql("SELECT group_id, allowed_role_ids FROM groups WHERE cardinality(allowed_role_ids) > 0")
+                .map(row -> Map.entry(row.get("group_id", Long.class), row.get("allowed_role_ids", Long[].class)))
+                .all()
+                .collectList()
+                .doOnNext(rows -> {
+                    Snapshot built = finishRebuild(rows);
+                    long took = System.nanoTime() - start;
+                    buildTimer.record(took, TimeUnit.NANOSECONDS);
+                    log.debug("RoleGroupIndex: indexed {} groups / {} roles in {} ms",
+                            built.rolesByGroup().size(), built.groupsByRole().size(), TimeUnit.NANOSECONDS.toMillis(took));
+                })
+                .doFinally(signal -> abandonRebuild())
+                .then();
+    }
+
+    synchronized void beginRebuild() {
+        writtenDuringRebuild = new HashMap<>();
+        rebuildStartedAt = resyncs;
+    }
+
+    // builds fresh maps from the rows, replays local writes made since beginRebuild, publishes
+    Snapshot finishRebuild(List<Map.Entry<Long, Long[]>> rows) {
+        Map<Long, Roaring64Bitmap> groupsByRole = new ConcurrentHashMap<>();
+        Map<Long, Roaring64Bitmap> rolesByGroup = new ConcurrentHashMap<>();
+        for (Map.Entry<Long, Long[]> row : rows) {
+            Roaring64Bitmap roles = bitmapOf(Arrays.asList(row.getValue()));
+            rolesByGroup.put(row.getKey(), roles);
+            for (long roleId : roles.toArray()) {
+                groupsByRole.computeIfAbsent(roleId, id -> new Roaring64Bitmap()).addLong(row.getKey());
+            }
+        }
+        groupsByRole.values().forEach(Roaring64Bitmap::runOptimize);
+        Snapshot built = new Snapshot(groupsByRole, rolesByGroup);
+
+        synchronized (this) {
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.forEach((groupId, roles) -> apply(built, groupId, roles));
+                writtenDuringRebuild = null;
+            }
+            snapshot = built;
+            // a rebuild that began before the feed reconnected may have missed writes made while it was down
+            if (rebuildStartedAt == resyncs) {
+                ready = true;
+            }
+        }
+        return built;
+    }
+
+    private synchronized void abandonRebuild() {
+        writtenDuringRebuild = null;
+    }
+
+    // copy-on-write: published bitmaps are never modified
+    private static void addTo(Map<Long, Roaring64Bitmap> index, long key, long value) {
+        Roaring64Bitmap copy = index.containsKey(key) ? index.get(key).clone() : new Roaring64Bitmap();
+        copy.addLong(value);
+        index.put(key, copy);
+    }
+
+    private static void removeFrom(Map<Long, Roaring64Bitmap> index, long key, long value) {
+        Roaring64Bitmap existing = index.get(key);
+        if (existing == null) {
+            return;
+        }
+        Roaring64Bitmap copy = existing.clone();
+        copy.removeLong(value);
+        if (copy.isEmpty()) {
+            index.remove(key);
+        } else {
+            index.put(key, copy);
+        }
+    }
+
+    private static Roaring64Bitmap bitmapOf(List<Long> ids) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        if (ids != null) {
+            ids.stream().filter(id -> id != null).forEach(bitmap::addLong);
+        }
+        return bitmap;
+    }
+}
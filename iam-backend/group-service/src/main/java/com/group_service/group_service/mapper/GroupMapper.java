@@ -1,6 +1,7 @@
 
 package com.group_service.group_service.mapper;
 
+import com.group_service.group_service.dto.GroupPatchDto;
 import com.group_service.group_service.dto.GroupRequestDto;
 import com.group_service.group_service.dto.GroupResponseDto;
 import com.group_service.group_service.entity.Group;
@@ -8,7 +9,9 @@ import com.group_service.group_service.entity.Group;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -44,6 +47,7 @@ public final class GroupMapper {
                 .allowedRoleIds(copyList(entity.getAllowedRoleIds()))
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(entity.getVersion())
                 .build();
     }
 
@@ -70,6 +74,24 @@ public final class GroupMapper {
         // }
     }
 
+    // Column -> new value for the fields present in a PATCH (same trimming as updateEntity)
+    public static Map<String, Object> toChanges(GroupPatchDto dto) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (dto.getName() != null) {
+            changes.put("name", safeTrim(dto.getName()));
+        }
+        if (dto.getDescription() != null) {
+            changes.put("description", safeTrim(dto.getDescription()));
+        }
+        if (dto.getAllowedRoleIds() != null) {
+            changes.put("allowed_role_ids", dto.getAllowedRoleIds().toArray(Long[]::new));
+        }
+        if (dto.getStatus() != null) {
+            changes.put("status", dto.getStatus().trim());
+        }
+        return changes;
+    }
+
     // -------- Helpers --------
 
     private static String safeTrim(String s) {
@@ -1,8 +1,9 @@
 
 package com.group_service.group_service.repository;
 
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
-import reactor.core.publisher.Flux;
 
 import com.group_service.group_service.entity.Group;
 
@@ -14,4 +15,18 @@ public interface GroupRepository extends ReactiveCrudRepository<Group, Long> {
 
     Flux<Group> findByStatus(String status);
 
+    // Groups allowing a role; served by the GIN index idx_groups_allowed_role_ids
+    @Query("SELECT * FROM groups WHERE allowed_role_ids @> ARRAY[CAST(:roleId AS BIGINT)] ORDER BY group_id")
+    Flux<Group> findByAllowedRoleId(@Param("roleId") Long roleId);
+
+    @Query("SELECT group_id FROM groups WHERE allowed_role_ids @> ARRAY[CAST(:roleId AS BIGINT)] ORDER BY group_id")
+    Flux<Long> findIdsByAllowedRoleId(@Param("roleId") Long roleId);
+
+    // one array parameter, like findAllByGroupIdIn
+    @Query("SELECT DISTINCT unnest(allowed_role_ids) AS role_id FROM groups WHERE group_id = ANY(:groupIds) ORDER BY role_id")
+    Flux<Long> findAllowedRoleIdsByGroupIds(@Param("groupIds") Long[] groupIds);
+
+    // ids bound as one array parameter: the statement text does not vary with the batch size
+    @Query("SELECT * FROM groups WHERE group_id = ANY(:ids)")
+    Flux<Group> findAllByGroupIdIn(@Param("ids") Long[] ids);
 }
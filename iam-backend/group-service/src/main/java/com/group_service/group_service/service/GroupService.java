@@ -1,10 +1,17 @@
 
 package com.group_service.group_service.service;
 
+import com.group_service.group_service.dto.BatchResponseDto;
+import com.group_service.group_service.dto.CursorPageResponse;
+import com.group_service.group_service.dto.GroupPatchDto;
 import com.group_service.group_service.dto.GroupRequestDto;
 import com.group_service.group_service.dto.GroupResponseDto;
+import com.group_service.group_service.dto.PageResponse;
 import com.group_service.group_service.entity.Group;
 
+import java.util.Collection;
+import java.util.List;
+
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -16,15 +23,36 @@ public interface GroupService {
     // Get group by ID
     Mono<GroupResponseDto> getGroupById(Long id);
 
+    // Many groups in one query; unknown ids are reported as missing
+    Mono<BatchResponseDto<GroupResponseDto>> getGroupsByIds(List<Long> ids);
+
     // Get all groups (return DTOs for consistency)
     Flux<GroupResponseDto> getAllGroups();
 
     // Update an existing group
     Mono<GroupResponseDto> updateGroup(Long id, GroupRequestDto requestDto);
 
+    // Partial update guarded by the version column
+    Mono<GroupResponseDto> patchGroup(Long id, GroupPatchDto patchDto);
+
     // Delete group by ID
     Mono<Void> deleteGroupById(Long id);
 
     Flux<Group> getGroupsByOrg(Long orgId);
+
+    // One page of an organization's groups, optionally filtered by status
+    Mono<PageResponse<GroupResponseDto>> getGroupsByOrgPage(Long orgId, String status, int page, int size);
+
+    // Keyset variant: groups with groupId after the cursor
+    Mono<CursorPageResponse<GroupResponseDto>> getGroupsByOrgAfter(Long orgId, String status, String cursor, int size);
+
+    // Groups whose allowed roles include roleId
+    Flux<GroupResponseDto> getGroupsByRole(Long roleId);
+
+    // Ids only, answered from the in-memory role index when it is ready
+    Mono<List<Long>> getGroupIdsByRole(Long roleId);
+
+    // Union of the allowed roles of the given groups
+    Mono<List<Long>> getAllowedRoleIds(Collection<Long> groupIds);
 }
 
@@ -1,14 +1,37 @@
 package com.group_service.group_service.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.group_service.group_service.dto.BatchResponseDto;
+import com.group_service.group_service.dto.CursorPageResponse;
+import com.group_service.group_service.dto.GroupPatchDto;
 import com.group_service.group_service.dto.GroupRequestDto;
 import com.group_service.group_service.dto.GroupResponseDto;
+import com.group_service.group_service.dto.PageResponse;
 import com.group_service.group_service.entity.Group;
 import com.group_service.group_service.exception.GroupNotFoundException;
+import com.group_service.group_service.index.RoleGroupIndex;
 import com.group_service.group_service.mapper.GroupMapper;
 import com.group_service.group_service.repository.GroupRepository;
 
@@ -20,7 +43,15 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class GroupServiceImpl implements GroupService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final GroupRepository groupRepository;
+    private final R2dbcEntityTemplate template;
+    private final RoleGroupIndex roleGroupIndex;
+
+    @Value("${app.batch.max-ids:500}")
+    private int maxBatchIds;
 
     @Override
     public Mono<GroupResponseDto> createGroup(GroupRequestDto requestDto) {
@@ -29,6 +60,7 @@ public class GroupServiceImpl implements GroupService {
 
         // Save entity and map back to response DTO
         return groupRepository.save(groupEntity)
+                .doOnNext(this::index)
                 .map(GroupMapper::toDto);
 
     }
@@ -40,6 +72,39 @@ public class GroupServiceImpl implements GroupService {
                 .map(GroupMapper::toDto);
     }
 
+    /**
+     * One round trip for many ids: WHERE group_id = ANY(:ids), then split the request
+     * into found (in request order) and missing.
+     */
+    @Override
+    public Mono<BatchResponseDto<GroupResponseDto>> getGroupsByIds(List<Long> ids) {
+        List<Long> wanted = ids == null ? List.of()
+                : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (wanted.size() > maxBatchIds) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchIds + " ids per batch, got " + wanted.size()));
+        }
+        if (wanted.isEmpty()) {
+            return Mono.just(new BatchResponseDto<>(Map.of(), List.of()));
+        }
+
+        return groupRepository.findAllByGroupIdIn(wanted.toArray(new Long[0]))
+                .collectMap(Group::getGroupId, GroupMapper::toDto)
+                .map(rows -> {
+                    Map<Long, GroupResponseDto> found = new LinkedHashMap<>();
+                    List<Long> missing = new ArrayList<>();
+                    for (Long id : wanted) {
+                        GroupResponseDto group = rows.get(id);
+                        if (group != null) {
+                            found.put(id, group);
+                        } else {
+                            missing.add(id);
+                        }
+                    }
+                    return new BatchResponseDto<>(found, missing);
+                });
+    }
+
     @Override
     public Flux<GroupResponseDto> getAllGroups() {
         return groupRepository.findAll() .map(GroupMapper::toDto);
@@ -56,15 +121,47 @@ public class GroupServiceImpl implements GroupService {
                     existing.setUpdatedAt(LocalDateTime.now());
                     return groupRepository.save(existing);
                 })
+                .doOnNext(this::index)
                 .map(GroupMapper::toDto);
     }
 
 
+    /**
+     * One UPDATE touching only the supplied columns, matched on (group_id, version).
+     * If no row matches, an existence check decides between 404 and 409.
+     */
+    @Override
+    public Mono<GroupResponseDto> patchGroup(Long id, GroupPatchDto patchDto) {
+        Map<String, Object> changes = GroupMapper.toChanges(patchDto);
+
+        StringBuilder sql = new StringBuilder("UPDATE groups SET ");
+        changes.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        sql.append("updated_at = :updatedAt, version = version + 1 WHERE group_id = :id AND version = :version RETURNING *");
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString());
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            spec = spec.bind(change.getKey(), change.getValue());
+        }
+        return spec.bind("updatedAt", LocalDateTime.now())
+                .bind("id", id)
+                .bind("version", patchDto.getVersion())
+                .map((row, meta) -> template.getConverter().read(Group.class, row, meta))
+                .one()
+                .switchIfEmpty(Mono.defer(() -> groupRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new OptimisticLockingFailureException("Group " + id
+                                        + " was modified by someone else (version " + patchDto.getVersion() + " is stale)")
+                                : new GroupNotFoundException("Group not found with id: " + id)))))
+                .doOnNext(this::index)
+                .map(GroupMapper::toDto);
+    }
+
     @Override
     public Mono<Void> deleteGroupById(Long id) {
         return groupRepository.findById(id)
                 .switchIfEmpty(Mono.error(new GroupNotFoundException("Group with ID " + id + " not found")))
                 .flatMap(group -> groupRepository.deleteById(id))
+                .doOnSuccess(v -> roleGroupIndex.remove(id))
                 .onErrorResume(DataAccessException.class, ex -> {
                     return Mono.error(new RuntimeException("Database error occurred while deleting group: " + ex.getMessage()));
                 });
@@ -74,5 +171,128 @@ public class GroupServiceImpl implements GroupService {
         return groupRepository.findByOrgId(orgId);
     }
 
+    /**
+     * Offset page over (org_id, group_id); the count uses the same predicate and index.
+     */
+    @Override
+    public Mono<PageResponse<GroupResponseDto>> getGroupsByOrgPage(Long orgId, String status, int page, int size) {
+        int pageNo = Math.max(page, 0);
+        int pageSize = pageSize(size);
+        Criteria criteria = byOrg(orgId, status);
+
+        // one extra row tells whether a next page exists
+        Mono<List<GroupResponseDto>> rows = template.select(Group.class)
+                .matching(Query.query(criteria)
+                        .sort(Sort.by("group_id"))
+                        .limit(pageSize + 1)
+                        .offset((long) pageNo * pageSize))
+                .all()
+                .map(GroupMapper::toDto)
+                .collectList();
+        Mono<Long> total = template.count(Query.query(criteria), Group.class);
+
+        return Mono.zip(rows, total)
+                .map(tuple -> {
+                    List<GroupResponseDto> content = tuple.getT1();
+                    boolean hasNext = content.size() > pageSize;
+                    if (hasNext) {
+                        content = content.subList(0, pageSize);
+                    }
+                    long totalElements = tuple.getT2();
+                    int totalPages = (int) ((totalElements + pageSize - 1) / pageSize);
+                    return new PageResponse<>(content, pageNo, pageSize, totalElements, totalPages, hasNext);
+                });
+    }
+
+    /**
+     * Keyset page: seeks past the last groupId of the previous page on (org_id, group_id),
+     * so deep pages cost the same as the first.
+     */
+    @Override
+    public Mono<CursorPageResponse<GroupResponseDto>> getGroupsByOrgAfter(Long orgId, String status, String cursor, int size) {
+        int pageSize = pageSize(size);
+        Criteria criteria = byOrg(orgId, status);
+        if (cursor != null && !cursor.isBlank()) {
+            long afterId;
+            try {
+                afterId = decodeCursor(cursor);
+            } catch (IllegalArgumentException ex) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+            }
+            criteria = criteria.and("group_id").greaterThan(afterId);
+        }
+
+        return template.select(Group.class)
+                .matching(Query.query(criteria)
+                        .sort(Sort.by("group_id"))
+                        .limit(pageSize + 1))
+                .all()
+                .map(GroupMapper::toDto)
+                .collectList()
+                .map(content -> {
+                    boolean hasNext = content.size() > pageSize;
+                    if (hasNext) {
+                        content = content.subList(0, pageSize);
+                    }
+                    String next = hasNext ? encodeCursor(content.get(content.size() - 1).getGroupId()) : null;
+                    return new CursorPageResponse<>(content, pageSize, next);
+                });
+    }
+
+    private static Criteria byOrg(Long orgId, String status) {
+        Criteria criteria = Criteria.where("org_id").is(orgId);
+        return status == null || status.isBlank() ? criteria : criteria.and("status").is(status.trim());
+    }
+
+    private static int pageSize(int size) {
+        return size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private static String encodeCursor(long groupId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("g1:" + groupId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (!raw.startsWith("g1:")) {
+            throw new IllegalArgumentException("Unsupported cursor");
+        }
+        return Long.parseLong(raw.substring(3));
+    }
+
+    @Override
+    public Flux<GroupResponseDto> getGroupsByRole(Long roleId) {
+        return groupRepository.findByAllowedRoleId(roleId)
+                .map(GroupMapper::toDto);
+    }
+
+    @Override
+    public Mono<List<Long>> getGroupIdsByRole(Long roleId) {
+        if (roleGroupIndex.isReady()) {
+            return Mono.just(boxed(roleGroupIndex.groupsForRole(roleId)));
+        }
+        return groupRepository.findIdsByAllowedRoleId(roleId).collectList();
+    }
+
+    @Override
+    public Mono<List<Long>> getAllowedRoleIds(Collection<Long> groupIds) {
+        if (groupIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        if (roleGroupIndex.isReady()) {
+            return Mono.just(boxed(roleGroupIndex.rolesForGroups(groupIds)));
+        }
+        return groupRepository.findAllowedRoleIdsByGroupIds(groupIds.toArray(Long[]::new)).collectList();
+    }
+
+    private void index(Group group) {
+        roleGroupIndex.put(group.getGroupId(), group.getAllowedRoleIds());
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
 
 }
\ No newline at end of file
@@ -12,3 +12,39 @@ CREATE TABLE IF NOT EXISTS groups (
     
     
 
+
+-- Optimistic concurrency: bumped on every update, checked by PATCH
+ALTER TABLE groups ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- "Which groups allow role X": allowed_role_ids @> ARRAY[X]
+CREATE INDEX IF NOT EXISTS idx_groups_allowed_role_ids ON groups USING GIN (allowed_role_ids);
+
+-- Per-organization listing, ordered / keyset-paged by group_id, with and without a status filter
+CREATE INDEX IF NOT EXISTS idx_groups_org_id_group_id ON groups (org_id, group_id);
+CREATE INDEX IF NOT EXISTS idx_groups_org_id_status_group_id ON groups (org_id, status, group_id);
+
+-- Cross-replica role index updates (RoleGroupIndex): NOTIFY groups_roles_changed with the group_id of
+-- every inserted / deleted group and of updates that change allowed_role_ids
+-- (function body single-quoted: the init script splitter has no $$ support)
+CREATE OR REPLACE FUNCTION notify_groups_roles_change() RETURNS trigger AS '
+BEGIN
+    IF TG_OP = ''DELETE'' THEN
+        PERFORM pg_notify(''groups_roles_changed'', OLD.group_id::text);
+    ELSE
+        PERFORM pg_notify(''groups_roles_changed'', NEW.group_id::text);
+    END IF;
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_groups_roles_notify ON groups;
+CREATE TRIGGER trg_groups_roles_notify
+    AFTER INSERT OR DELETE ON groups
+    FOR EACH ROW EXECUTE FUNCTION notify_groups_roles_change();
+
+DROP TRIGGER IF EXISTS trg_groups_roles_notify_update ON groups;
+CREATE TRIGGER trg_groups_roles_notify_update
+    AFTER UPDATE ON groups
+    FOR EACH ROW
+    WHEN (OLD.allowed_role_ids IS DISTINCT FROM NEW.allowed_role_ids)
+    EXECUTE FUNCTION notify_groups_roles_change();
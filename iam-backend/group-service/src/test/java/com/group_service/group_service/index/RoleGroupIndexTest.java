@@ -0,0 +1,111 @@
+package com.group_service.group_service.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RoleGroupIndexTest {
+
+	private final RoleGroupIndex index = new RoleGroupIndex(null, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+
+	@Test
+	void answersRoleToGroupsAndGroupSetToRoleUnion() {
+		index.put(1, List.of(10L, 20L));
+		index.put(2, List.of(20L, 30L));
+		index.put(3, List.of(40L));
+
+		assertArrayEquals(new long[]{1, 2}, index.groupsForRole(20));
+		assertArrayEquals(new long[]{3}, index.groupsForRole(40));
+		assertArrayEquals(new long[0], index.groupsForRole(99));
+		assertArrayEquals(new long[]{10, 20, 30}, index.rolesForGroups(List.of(1L, 2L, 7L)));
+	}
+
+	@Test
+	void replacingAndRemovingAGroupUpdatesBothDirections() {
+		index.put(1, List.of(10L, 20L));
+		index.put(2, List.of(20L));
+
+		index.put(1, List.of(20L, 30L));
+		assertArrayEquals(new long[0], index.groupsForRole(10));
+		assertArrayEquals(new long[]{1}, index.groupsForRole(30));
+
+		index.remove(1);
+		assertArrayEquals(new long[]{2}, index.groupsForRole(20));
+		assertArrayEquals(new long[0], index.groupsForRole(30));
+		assertArrayEquals(new long[0], index.rolesForGroups(List.of(1L)));
+	}
+
+	@Test
+	void writesNeverModifyAPublishedBitmap() {
+		index.put(1, List.of(10L));
+		Roaring64Bitmap published = index.groupsBitmap(10);
+
+		index.put(2, List.of(10L));
+		index.remove(1);
+
+		assertArrayEquals(new long[]{1}, published.toArray());
+		assertNotSame(published, index.groupsBitmap(10));
+		assertArrayEquals(new long[]{2}, index.groupsForRole(10));
+	}
+
+	@Test
+	void untouchedBitmapsAreShared() {
+		index.put(1, List.of(10L));
+		index.put(2, List.of(20L));
+		Roaring64Bitmap untouched = index.groupsBitmap(20);
+
+		index.put(3, List.of(10L));
+
+		assertSame(untouched, index.groupsBitmap(20));
+	}
+
+	@Test
+	void rebuildReplaysLocalWritesMadeWhileItRan() {
+		index.beginRebuild();
+		index.put(1, List.of(30L));   // written after the rebuild read group 1 as {10}
+		index.remove(2);              // deleted after the rebuild read it
+		index.put(3, List.of(40L));   // created after the rebuild read the table
+
+		index.finishRebuild(List.of(
+				Map.entry(1L, new Long[]{10L}),
+				Map.entry(2L, new Long[]{10L, 20L})));
+
+		assertTrue(index.isReady());
+		assertArrayEquals(new long[0], index.groupsForRole(10));
+		assertArrayEquals(new long[0], index.groupsForRole(20));
+		assertArrayEquals(new long[]{1}, index.groupsForRole(30));
+		assertArrayEquals(new long[]{3}, index.groupsForRole(40));
+		assertArrayEquals(new long[]{30, 40}, index.rolesForGroups(List.of(1L, 2L, 3L)));
+	}
+
+	@Test
+	void bypassedUntilARebuildStartedAfterTheFeedReconnectFinishes() {
+		index.beginRebuild();
+		index.finishRebuild(List.of(Map.entry(1L, new Long[]{10L})));
+		assertTrue(index.isReady());
+
+		index.changeFeedLost();
+		assertFalse(index.isReady());
+
+		index.beginRebuild();            // began while the feed was down
+		index.changeFeedResumed();
+		index.finishRebuild(List.of(Map.entry(1L, new Long[]{10L})));
+		assertFalse(index.isReady());
+
+		index.beginRebuild();
+		index.finishRebuild(List.of(Map.entry(1L, new Long[]{20L})));
+		assertTrue(index.isReady());
+		assertArrayEquals(new long[]{1}, index.groupsForRole(20));
+	}
+}
@@ -1,10 +1,11 @@
 package com.organization_service.organization_service.controller;
 
-import java.util.List;
-
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -12,7 +13,13 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.organization_service.organization_service.dto.BatchRequestDTO;
+import com.organization_service.organization_service.dto.BatchResponseDTO;
+import com.organization_service.organization_service.dto.CountMode;
+import com.organization_service.organization_service.dto.OrgDeleteResultDTO;
+import com.organization_service.organization_service.dto.OrgPatchDTO;
 import com.organization_service.organization_service.dto.OrgRequestDTO;
 import com.organization_service.organization_service.dto.OrgResponseDTO;
 import com.organization_service.organization_service.dto.PageResponse;
@@ -20,6 +27,7 @@ import com.organization_service.organization_service.service.OrganizationService
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 
@@ -44,10 +52,64 @@ public class OrganizationController {
                       .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
-    public Mono<ResponseEntity<List<OrgResponseDTO>>> all() {
-        return service.getAll()
-                      .collectList()
+    /**
+     * All organizations, streamed as they are read from the database:
+     * a chunked JSON array by default, one object per line with Accept: application/x-ndjson.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<OrgResponseDTO> all() {
+        return service.getAll();
+    }
+
+    /**
+     * POST /api/organizations/batch  {"ids": [1, 2, 3]}
+     * Many organizations in one query; ids without a row come back in missing.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResponseDTO<OrgResponseDTO>>> batch(@Valid @RequestBody BatchRequestDTO req) {
+        return service.getByIds(req.getIds())
+                      .map(ResponseEntity::ok);
+    }
+
+    // Whole subtree below id in one query, parents before children; maxDepth=1 is the direct children
+    @GetMapping("/{id}/descendants")
+    public Flux<OrgResponseDTO> descendants(@PathVariable Long id,
+                                            @RequestParam(required = false) Integer maxDepth) {
+        return service.getDescendants(id, maxDepth);
+    }
+
+    // Orgs below id that have no children
+    @GetMapping("/{id}/leaves")
+    public Flux<OrgResponseDTO> leaves(@PathVariable Long id) {
+        return service.getLeaves(id);
+    }
+
+    /**
+     * GET /api/organizations/byLevel?min=0&max=2
+     * Every organization within the level range (roots are 0), ordered by level.
+     */
+    @GetMapping("/byLevel")
+    public Flux<OrgResponseDTO> byLevel(@RequestParam(defaultValue = "0") int min,
+                                        @RequestParam int max) {
+        return service.getByLevel(min, max);
+    }
+
+    // Parent, grandparent, ... root
+    @GetMapping("/{id}/ancestors")
+    public Flux<OrgResponseDTO> ancestors(@PathVariable Long id) {
+        return service.getAncestors(id);
+    }
+
+    // Breadcrumb from the root down to id
+    @GetMapping("/{id}/path")
+    public Flux<OrgResponseDTO> path(@PathVariable Long id) {
+        return service.getPath(id);
+    }
+
+    // Hierarchy membership check, answered from the in-memory tree
+    @GetMapping("/{id}/isUnder/{ancestorId}")
+    public Mono<ResponseEntity<Boolean>> isUnder(@PathVariable Long id, @PathVariable Long ancestorId) {
+        return service.isDescendantOf(id, ancestorId)
                       .map(ResponseEntity::ok);
     }
 
@@ -59,17 +121,42 @@ public class OrganizationController {
                       .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    // Partial update; 400 without a version, 404 if missing, 409 if the version is stale
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<OrgResponseDTO>> patch(@PathVariable Long id,
+                                                      @Valid @RequestBody OrgPatchDTO req) {
+        return service.patch(id, req)
+                      .map(ResponseEntity::ok);
+    }
+
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<String>> delete(@PathVariable Long id) {
         return service.delete(id)
                       .thenReturn(ResponseEntity.ok("Deleted successfully with ID: " + id));
     }
+    /**
+     * DELETE /api/organizations/{id}?cascade=true
+     * Deletes the organization and its whole subtree in one transaction and lists the removed ids.
+     */
+    @DeleteMapping(value = "/{id}", params = "cascade=true")
+    public Mono<ResponseEntity<OrgDeleteResultDTO>> deleteCascade(@PathVariable Long id) {
+        return service.deleteSubtree(id)
+                      .map(ResponseEntity::ok);
+    }
+
     @GetMapping("/page")
     public Mono<PageResponse<OrgResponseDTO>> getPaginated(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "exact") String count) {
 
-        return service.getPaginated(page, size);
+        CountMode countMode;
+        try {
+            countMode = CountMode.from(count);
+        } catch (IllegalArgumentException ex) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage()));
+        }
+        return service.getPaginated(page, size, countMode);
     }
 
    
@@ -0,0 +1,15 @@
+package com.organization_service.organization_service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// found is keyed by id in request order; missing lists the requested ids with no row
+@Data
+@AllArgsConstructor
+public class BatchResponseDTO<T> {
+    private Map<Long, T> found;
+    private List<Long> missing;
+}
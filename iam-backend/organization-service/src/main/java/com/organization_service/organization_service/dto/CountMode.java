@@ -0,0 +1,23 @@
+package com.organization_service.organization_service.dto;
+
+import java.util.Locale;
+
+/**
+ * How paginated endpoints compute totals.
+ * EXACT runs COUNT(*), ESTIMATED serves a periodically refreshed count,
+ * NONE skips the total and only reports whether a next page exists.
+ */
+public enum CountMode {
+
+	EXACT,
+	ESTIMATED,
+	NONE;
+
+	public static CountMode from(String value) {
+		try {
+			return valueOf(value.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("count must be one of exact, estimated, none");
+		}
+	}
+}
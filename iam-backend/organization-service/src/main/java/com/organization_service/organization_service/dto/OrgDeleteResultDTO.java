@@ -0,0 +1,15 @@
+package com.organization_service.organization_service.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Outcome of a cascade delete: every removed org id, deepest levels first
+@Data
+@AllArgsConstructor
+public class OrgDeleteResultDTO {
+    private Long orgId;
+    private int deletedCount;
+    private List<Long> deletedIds;
+}
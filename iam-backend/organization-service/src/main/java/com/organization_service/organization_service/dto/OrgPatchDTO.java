@@ -0,0 +1,24 @@
+package com.organization_service.organization_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Partial update: null fields are left unchanged.
+ * version is the value last read; a stale version is rejected with 409.
+ */
+@Data
+public class OrgPatchDTO {
+	private String name;
+	private Long parentOrgId;
+	private String address;
+	private String status;
+	private String region;
+	private String country;
+	private String state;
+	private String city;
+	private String zipcode;
+
+	@NotNull(message = "Version is required")
+	private Long version;
+}
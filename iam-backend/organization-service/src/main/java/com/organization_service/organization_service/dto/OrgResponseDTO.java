@@ -12,6 +12,7 @@ public class OrgResponseDTO {
 	 private Long orgId;
 	    private String name;
 	    private Long parentOrgId;
+	    private Integer level;
 	    private String address;
 	    private String status;
 	    private String region;
@@ -21,4 +22,5 @@ public class OrgResponseDTO {
 	    private String zipcode;
 	    private LocalDateTime createdAt;
 	    private LocalDateTime updatedAt;
+	    private Long version;
 }
@@ -1,22 +1,28 @@
 package com.organization_service.organization_service.dto;
 
 import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Data;
 
+// totalElements / totalPages are null when the count was skipped (count=none)
 @Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageResponse<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private long totalPages;
+    private Long totalElements;
+    private Long totalPages;
+    private boolean hasNext;
 
-    public PageResponse(List<T> content, int page, int size, long totalElements) {
+    public PageResponse(List<T> content, int page, int size, Long totalElements, boolean hasNext) {
         this.content = content;
         this.page = page;
         this.size = size;
         this.totalElements = totalElements;
-        this.totalPages = (long) Math.ceil((double) totalElements / size);
+        this.totalPages = totalElements == null ? null : (long) Math.ceil((double) totalElements / size);
+        this.hasNext = hasNext;
     }
 }
-
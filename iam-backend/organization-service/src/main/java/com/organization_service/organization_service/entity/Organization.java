@@ -3,6 +3,8 @@ package com.organization_service.organization_service.entity;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 import org.springframework.data.relational.core.mapping.Column;
 
@@ -29,6 +31,11 @@ public class Organization {
     @Column("parent_org_id")
     private Long parentOrgId;
 
+    // Depth in the hierarchy, roots are 0; maintained in SQL by the service, never written by save()
+    @ReadOnlyProperty
+    @Column("level")
+    private Integer level;
+
     @Column("address")
     private String address;
 
@@ -55,4 +62,8 @@ public class Organization {
 
     @Column("updated_at")
     private LocalDateTime updatedAt;
+
+    @Version
+    @Column("version")
+    private Long version;
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.organization_service.organization_service.mapper;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.stereotype.Component;
 
+import com.organization_service.organization_service.dto.OrgPatchDTO;
 import com.organization_service.organization_service.dto.OrgRequestDTO;
 import com.organization_service.organization_service.dto.OrgResponseDTO;
 import com.organization_service.organization_service.entity.Organization;
@@ -28,6 +32,7 @@ public class OrganizationMapper {
                 .orgId(e.getOrgId())
                 .name(e.getName())
                 .parentOrgId(e.getParentOrgId())
+                .level(e.getLevel())
                 .address(e.getAddress())
                 .status(e.getStatus())
                 .region(e.getRegion())
@@ -37,9 +42,25 @@ public class OrganizationMapper {
                 .zipcode(e.getZipcode())
                 .createdAt(e.getCreatedAt())
                 .updatedAt(e.getUpdatedAt())
+                .version(e.getVersion())
                 .build();
     }
 
+    // Column -> new value for the fields present in a PATCH
+    public Map<String, Object> toChanges(OrgPatchDTO r) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (r.getName() != null) changes.put("name", r.getName());
+        if (r.getParentOrgId() != null) changes.put("parent_org_id", r.getParentOrgId());
+        if (r.getAddress() != null) changes.put("address", r.getAddress());
+        if (r.getStatus() != null) changes.put("status", r.getStatus());
+        if (r.getRegion() != null) changes.put("region", r.getRegion());
+        if (r.getCountry() != null) changes.put("country", r.getCountry());
+        if (r.getState() != null) changes.put("state", r.getState());
+        if (r.getCity() != null) changes.put("city", r.getCity());
+        if (r.getZipcode() != null) changes.put("zipcode", r.getZipcode());
+        return changes;
+    }
+
     public void updateEntity(Organization e, OrgRequestDTO r) {
         if (r.getName() != null) e.setName(r.getName());
         e.setParentOrgId(r.getParentOrgId());
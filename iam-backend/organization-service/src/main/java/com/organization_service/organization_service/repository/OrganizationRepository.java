@@ -11,6 +11,52 @@ import reactor.core.publisher.Mono;
 public interface OrganizationRepository extends ReactiveCrudRepository<Organization, Long> {
 	Flux<Organization> findAllByParentOrgId(Long parentOrgId);
 
+	/*
+	 * Hierarchy walks: one recursive CTE each, driven by idx_organization_parent_org_id (down)
+	 * and the primary key (up). The visited path stops the walk on a corrupt parent cycle.
+	 */
+
+	// orgId and everything below it, depth-first (each parent before its children)
+	@Query("WITH RECURSIVE subtree AS ("
+			+ " SELECT o.*, ARRAY[o.org_id] AS path FROM organization o WHERE o.org_id = :orgId"
+			+ " UNION ALL"
+			+ " SELECT c.*, s.path || c.org_id FROM organization c JOIN subtree s ON c.parent_org_id = s.org_id"
+			+ " WHERE NOT c.org_id = ANY(s.path))"
+			+ " SELECT * FROM subtree ORDER BY path")
+	Flux<Organization> findSubtree(Long orgId);
+
+	// Like findSubtree, but the walk stops maxDepth levels below orgId
+	@Query("WITH RECURSIVE subtree AS ("
+			+ " SELECT o.*, ARRAY[o.org_id] AS path, o.level + :maxDepth AS max_level FROM organization o WHERE o.org_id = :orgId"
+			+ " UNION ALL"
+			+ " SELECT c.*, s.path || c.org_id, s.max_level FROM organization c JOIN subtree s ON c.parent_org_id = s.org_id"
+			+ " WHERE c.level <= s.max_level AND NOT c.org_id = ANY(s.path))"
+			+ " SELECT * FROM subtree ORDER BY path")
+	Flux<Organization> findSubtreeWithin(Long orgId, int maxDepth);
+
+	// Orgs below orgId that have no children of their own
+	@Query("WITH RECURSIVE subtree AS ("
+			+ " SELECT o.*, ARRAY[o.org_id] AS path FROM organization o WHERE o.org_id = :orgId"
+			+ " UNION ALL"
+			+ " SELECT c.*, s.path || c.org_id FROM organization c JOIN subtree s ON c.parent_org_id = s.org_id"
+			+ " WHERE NOT c.org_id = ANY(s.path))"
+			+ " SELECT * FROM subtree s WHERE s.org_id <> :orgId"
+			+ " AND NOT EXISTS (SELECT 1 FROM organization c WHERE c.parent_org_id = s.org_id) ORDER BY s.path")
+	Flux<Organization> findLeavesUnder(Long orgId);
+
+	// Served by idx_organization_level
+	@Query("SELECT * FROM organization WHERE level BETWEEN :minLevel AND :maxLevel ORDER BY level, org_id")
+	Flux<Organization> findByLevelBetween(int minLevel, int maxLevel);
+
+	// orgId followed by its parent, grandparent, ... up to the root
+	@Query("WITH RECURSIVE chain AS ("
+			+ " SELECT o.*, ARRAY[o.org_id] AS seen FROM organization o WHERE o.org_id = :orgId"
+			+ " UNION ALL"
+			+ " SELECT p.*, c.seen || p.org_id FROM organization p JOIN chain c ON p.org_id = c.parent_org_id"
+			+ " WHERE NOT p.org_id = ANY(c.seen))"
+			+ " SELECT * FROM chain ORDER BY array_length(seen, 1)")
+	Flux<Organization> findAncestry(Long orgId);
+
 	@Query("SELECT * FROM organization WHERE parent_org_id IS NULL ORDER BY org_id LIMIT :size OFFSET :offset")
 	Flux<Organization> findAllPaginated(long offset, int size);
 
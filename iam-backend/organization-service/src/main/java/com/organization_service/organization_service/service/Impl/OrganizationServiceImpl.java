@@ -1,9 +1,27 @@
 package com.organization_service.organization_service.service.Impl;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.organization_service.organization_service.dto.BatchResponseDTO;
+import com.organization_service.organization_service.dto.CountMode;
+import com.organization_service.organization_service.dto.OrgDeleteResultDTO;
+import com.organization_service.organization_service.dto.OrgPatchDTO;
 import com.organization_service.organization_service.dto.OrgRequestDTO;
 import com.organization_service.organization_service.dto.OrgResponseDTO;
 import com.organization_service.organization_service.dto.PageResponse;
@@ -12,7 +30,11 @@ import com.organization_service.organization_service.exception.ResourceNotFoundE
 import com.organization_service.organization_service.mapper.OrganizationMapper;
 import com.organization_service.organization_service.repository.OrganizationRepository;
 import com.organization_service.organization_service.service.OrganizationService;
+import com.organization_service.organization_service.tree.OrgTreeIndex;
 
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Statement;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
@@ -25,14 +47,216 @@ public class OrganizationServiceImpl implements OrganizationService {
 
 	private final OrganizationRepository repo;
 	private final OrganizationMapper mapper;
+	private final R2dbcEntityTemplate template;
+	private final OrgTreeIndex orgTree;
 
+	@Value("${app.pagination.count-cache-ttl:30s}")
+	private Duration countCacheTtl;
+
+	@Value("${app.export.fetch-size:500}")
+	private int exportFetchSize;
+
+	@Value("${app.batch.max-ids:500}")
+	private int maxBatchIds;
+
+	@Value("${app.org.cascade-delete.batch-size:1000}")
+	private int cascadeBatchSize;
+
+	// count=estimated: root count refreshed at most once per TTL, failures are not cached
+	private Mono<Long> cachedRootCount;
+
+	@PostConstruct
+	void initCountCache() {
+		cachedRootCount = Mono.defer(repo::countAllOrganizations)
+				.cache(count -> countCacheTtl, error -> Duration.ZERO, () -> Duration.ZERO);
+	}
+
+	// The level is taken from the parent in the same statement, so no row is ever visible without one;
+	// orgs whose parent does not exist are roots, as in RELEVEL_SUBTREE
+	private static final String LEVEL_FROM_PARENT =
+			"COALESCE((SELECT p.level + 1 FROM organization p WHERE p.org_id = $%d), 0)";
+
+	/**
+	 * Single INSERT ... RETURNING of the non-null columns, like save() would write them,
+	 * with the level computed from the parent's.
+	 */
 	@Override
 	public Mono<OrgResponseDTO> create(OrgRequestDTO request) {
 		Organization entity = mapper.toEntity(request);
 		entity.setCreatedAt(LocalDateTime.now());
 		entity.setUpdatedAt(LocalDateTime.now());
 
-		return repo.save(entity).map(mapper::toResponse);
+		Map<String, Object> columns = new LinkedHashMap<>();
+		columns.put("name", entity.getName());
+		columns.put("parent_org_id", entity.getParentOrgId());
+		columns.put("address", entity.getAddress());
+		columns.put("status", entity.getStatus());
+		columns.put("region", entity.getRegion());
+		columns.put("country", entity.getCountry());
+		columns.put("state", entity.getState());
+		columns.put("city", entity.getCity());
+		columns.put("zipcode", entity.getZipcode());
+		columns.put("created_at", entity.getCreatedAt());
+		columns.put("updated_at", entity.getUpdatedAt());
+		columns.values().removeIf(Objects::isNull);
+
+		List<Object> values = new ArrayList<>(columns.values());
+		StringBuilder names = new StringBuilder();
+		StringBuilder params = new StringBuilder();
+		int p = 1;
+		for (String column : columns.keySet()) {
+			names.append(column).append(", ");
+			params.append('$').append(p++).append(", ");
+		}
+		names.append("level");
+		if (entity.getParentOrgId() == null) {
+			params.append('0');
+		} else {
+			params.append(String.format(LEVEL_FROM_PARENT, p));
+			values.add(entity.getParentOrgId());
+		}
+		String sql = "INSERT INTO organization (" + names + ") VALUES (" + params + ") RETURNING *";
+
+		// raw driver binds, as in patch
+		return template.getDatabaseClient().sql(sql)
+				.filter(statement -> {
+					for (int i = 0; i < values.size(); i++) {
+						statement.bind(i, values.get(i));
+					}
+					return statement;
+				})
+				.map((row, meta) -> template.getConverter().read(Organization.class, row, meta))
+				.one()
+				.doOnNext(saved -> orgTree.put(saved.getOrgId(), saved.getParentOrgId()))
+				.map(mapper::toResponse);
+	}
+
+	/**
+	 * Rejects moving orgId under itself (400) or under one of its own descendants (409), which
+	 * would cut the subtree off from any root. Checked on the in-memory tree; until it has
+	 * loaded, on newParent's ancestor chain in Postgres.
+	 */
+	private Mono<Void> checkParent(Long orgId, Long newParent) {
+		if (newParent == null) {
+			return Mono.empty();
+		}
+		if (newParent.equals(orgId)) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Organization " + orgId + " cannot be its own parent"));
+		}
+		Mono<Boolean> underItself = orgTree.isReady()
+				? Mono.just(orgTree.current().isDescendantOf(newParent, orgId))
+				: repo.findAncestry(newParent).any(org -> org.getOrgId().equals(orgId));
+		return underItself.flatMap(cycle -> cycle
+				? Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+						"Organization " + newParent + " is a descendant of " + orgId + " and cannot become its parent"))
+				: Mono.empty());
+	}
+
+	// New level of orgId from its parent, carried down the whole subtree; the walk is the same as findSubtree
+	private static final String RELEVEL_SUBTREE = "WITH RECURSIVE subtree AS ("
+			+ " SELECT o.org_id, COALESCE((SELECT p.level + 1 FROM organization p WHERE p.org_id = o.parent_org_id), 0) AS level,"
+			+ " ARRAY[o.org_id] AS path FROM organization o WHERE o.org_id = $1"
+			+ " UNION ALL"
+			+ " SELECT c.org_id, s.level + 1, s.path || c.org_id FROM organization c JOIN subtree s ON c.parent_org_id = s.org_id"
+			+ " WHERE NOT c.org_id = ANY(s.path))"
+			+ " UPDATE organization o SET level = s.level FROM subtree s WHERE o.org_id = s.org_id"
+			+ " RETURNING o.org_id, o.level";
+
+	// Share-locks $1 and its ancestors, walked as in findAncestry
+	private static final String LOCK_ANCESTRY = "WITH RECURSIVE chain AS ("
+			+ " SELECT org_id, parent_org_id, ARRAY[org_id] AS seen FROM organization WHERE org_id = $1"
+			+ " UNION ALL"
+			+ " SELECT p.org_id, p.parent_org_id, c.seen || p.org_id FROM organization p JOIN chain c ON p.org_id = c.parent_org_id"
+			+ " WHERE NOT p.org_id = ANY(c.seen))"
+			+ " SELECT o.org_id FROM organization o JOIN chain c ON o.org_id = c.org_id FOR SHARE OF o";
+
+	/**
+	 * Recomputes the level of a re-parented org and of everything below it, in the caller's
+	 * transaction, and sets the org's new level on the entity. The new parent's ancestor chain
+	 * is share-locked first: a concurrent move of any of those orgs either commits before the
+	 * levels are read or waits until this transaction has committed, so it cannot leave the
+	 * subtree with levels computed from a stale parent.
+	 */
+	private Mono<Organization> relevel(Connection connection, Organization org) {
+		Mono<Void> lockParents = org.getParentOrgId() == null
+				? Mono.empty()
+				: Flux.from(connection.createStatement(LOCK_ANCESTRY)
+								.bind(0, org.getParentOrgId())
+								.execute())
+						.flatMap(result -> result.map((row, meta) -> row.get("org_id", Long.class)))
+						.then();
+		return lockParents
+				.thenMany(Flux.from(connection.createStatement(RELEVEL_SUBTREE)
+								.bind(0, org.getOrgId())
+								.execute())
+						.flatMap(result -> result.map((row, meta) ->
+								new long[]{row.get("org_id", Long.class), row.get("level", Integer.class)})))
+				.filter(row -> row[0] == org.getOrgId())
+				.next()
+				.map(row -> {
+					org.setLevel((int) row[1]);
+					return org;
+				})
+				.defaultIfEmpty(org);
+	}
+
+	/**
+	 * Runs work in an explicit BEGIN / COMMIT on one connection, rolled back on error or cancel:
+	 * this r2dbc-postgresql version predates the SPI method R2dbcTransactionManager calls, so
+	 * TransactionalOperator cannot be used.
+	 */
+	private <T> Mono<T> inTransaction(Function<Connection, Mono<T>> work) {
+		return template.getDatabaseClient().inConnection(connection -> Mono.usingWhen(
+				Mono.from(connection.beginTransaction()).thenReturn(connection),
+				work,
+				Connection::commitTransaction,
+				(tx, error) -> tx.rollbackTransaction(),
+				Connection::rollbackTransaction));
+	}
+
+	/*
+	 * UPDATE ... SET <changes>, updated_at, version = version + 1 WHERE org_id AND version,
+	 * then, when the parent changed, the relevel of the subtree, both in one transaction so
+	 * the levels never disagree with parent_org_id. Null change values are written as NULL.
+	 * No match -> existence check: 404 if the org is gone, 409 if the version is stale.
+	 */
+	private Mono<Organization> updateRow(Long orgId, Long version, Map<String, Object> changes, boolean moved) {
+		List<Object> values = new ArrayList<>();
+		StringBuilder sql = new StringBuilder("UPDATE organization SET ");
+		for (Map.Entry<String, Object> change : changes.entrySet()) {
+			sql.append(change.getKey()).append(" = ");
+			if (change.getValue() == null) {
+				sql.append("NULL, ");
+			} else {
+				values.add(change.getValue());
+				sql.append('$').append(values.size()).append(", ");
+			}
+		}
+		values.add(LocalDateTime.now());
+		sql.append("updated_at = $").append(values.size());
+		values.add(orgId);
+		sql.append(", version = version + 1 WHERE org_id = $").append(values.size());
+		values.add(version);
+		sql.append(" AND version = $").append(values.size()).append(" RETURNING *");
+
+		return inTransaction(tx -> {
+					// raw driver binds: this r2dbc-postgresql version cannot encode io.r2dbc.spi.Parameter,
+					// which DatabaseClient.bind(...) wraps values in
+					Statement statement = tx.createStatement(sql.toString());
+					for (int i = 0; i < values.size(); i++) {
+						statement.bind(i, values.get(i));
+					}
+					return Flux.from(statement.execute())
+							.flatMap(result -> result.map((row, meta) -> template.getConverter().read(Organization.class, row, meta)))
+							.next()
+							.flatMap(saved -> moved ? relevel(tx, saved) : Mono.just(saved));
+				})
+				.switchIfEmpty(Mono.defer(() -> repo.existsById(orgId)
+						.flatMap(exists -> Mono.error(exists
+								? new OptimisticLockingFailureException("Organization " + orgId
+										+ " was modified by someone else (version " + version + " is stale)")
+								: new ResourceNotFoundException("Organization not found: " + orgId)))));
 	}
 
 	@Override
@@ -40,10 +264,42 @@ public class OrganizationServiceImpl implements OrganizationService {
 		return repo.findById(orgId)
 				.switchIfEmpty(Mono.error(new ResourceNotFoundException("Organization not found: " + orgId)))
 				.flatMap(existing -> {
-					mapper.updateEntity(existing, request);
-					existing.setUpdatedAt(LocalDateTime.now());
-					return repo.save(existing);
-				}).map(mapper::toResponse);
+					boolean moved = !Objects.equals(existing.getParentOrgId(), request.getParentOrgId());
+					Mono<Void> check = moved ? checkParent(orgId, request.getParentOrgId()) : Mono.empty();
+					return check.then(Mono.defer(() -> {
+						Long version = existing.getVersion();
+						mapper.updateEntity(existing, request);
+
+						// every column, as save() wrote them, guarded by the version that was read
+						Map<String, Object> columns = new LinkedHashMap<>();
+						columns.put("name", existing.getName());
+						columns.put("parent_org_id", existing.getParentOrgId());
+						columns.put("address", existing.getAddress());
+						columns.put("status", existing.getStatus());
+						columns.put("region", existing.getRegion());
+						columns.put("country", existing.getCountry());
+						columns.put("state", existing.getState());
+						columns.put("city", existing.getCity());
+						columns.put("zipcode", existing.getZipcode());
+						return updateRow(orgId, version, columns, moved);
+					}));
+				})
+				.doOnNext(saved -> orgTree.put(saved.getOrgId(), saved.getParentOrgId()))
+				.map(mapper::toResponse);
+	}
+
+	/**
+	 * Single UPDATE of the supplied columns, matched on (org_id, version).
+	 * No match -> existence check: 404 if the org is gone, 409 if the version is stale.
+	 */
+	@Override
+	public Mono<OrgResponseDTO> patch(Long orgId, OrgPatchDTO request) {
+		Map<String, Object> changes = mapper.toChanges(request);
+
+		return checkParent(orgId, (Long) changes.get("parent_org_id"))
+				.then(updateRow(orgId, request.getVersion(), changes, changes.containsKey("parent_org_id")))
+				.doOnNext(saved -> orgTree.put(saved.getOrgId(), saved.getParentOrgId()))
+				.map(mapper::toResponse);
 	}
 
 	@Override
@@ -53,9 +309,120 @@ public class OrganizationServiceImpl implements OrganizationService {
 				.map(mapper::toResponse);
 	}
 
+	/**
+	 * Streams all organizations in org_id order straight from a database cursor: rows are
+	 * fetched app.export.fetch-size at a time as the client reads, never collected in memory.
+	 */
 	@Override
 	public Flux<OrgResponseDTO> getAll() {
-		return repo.findAll().map(mapper::toResponse);
+		return template.getDatabaseClient().sql("SELECT * FROM organization ORDER BY org_id")
+				.filter(statement -> statement.fetchSize(exportFetchSize))
+				.map((row, meta) -> template.getConverter().read(Organization.class, row, meta))
+				.all()
+				.map(mapper::toResponse);
+	}
+
+	/**
+	 * One round trip for many ids: WHERE org_id = ANY($1) with the ids bound as a single array,
+	 * so the statement text is the same whatever the batch size.
+	 */
+	@Override
+	public Mono<BatchResponseDTO<OrgResponseDTO>> getByIds(List<Long> ids) {
+		List<Long> wanted = ids == null ? List.of()
+				: ids.stream().filter(Objects::nonNull).distinct().toList();
+		if (wanted.size() > maxBatchIds) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + maxBatchIds + " ids per batch, got " + wanted.size()));
+		}
+		if (wanted.isEmpty()) {
+			return Mono.just(new BatchResponseDTO<>(Map.of(), List.of()));
+		}
+
+		return template.getDatabaseClient().sql("SELECT * FROM organization WHERE org_id = ANY($1)")
+				.filter(statement -> statement.bind(0, wanted.toArray(new Long[0])))
+				.map((row, meta) -> template.getConverter().read(Organization.class, row, meta))
+				.all()
+				.collectMap(Organization::getOrgId, mapper::toResponse)
+				.map(rows -> {
+					Map<Long, OrgResponseDTO> found = new LinkedHashMap<>();
+					List<Long> missing = new ArrayList<>();
+					for (Long id : wanted) {
+						OrgResponseDTO org = rows.get(id);
+						if (org != null) {
+							found.put(id, org);
+						} else {
+							missing.add(id);
+						}
+					}
+					return new BatchResponseDTO<>(found, missing);
+				});
+	}
+
+	@Override
+	public Flux<OrgResponseDTO> getDescendants(Long orgId, Integer maxDepth) {
+		if (maxDepth != null && maxDepth < 0) {
+			return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "maxDepth must not be negative"));
+		}
+		// the subtree starts with orgId itself, so an empty result means it does not exist
+		Flux<Organization> subtree = maxDepth == null ? repo.findSubtree(orgId) : repo.findSubtreeWithin(orgId, maxDepth);
+		return subtree
+				.switchIfEmpty(Flux.error(new ResourceNotFoundException("Organization not found: " + orgId)))
+				.skip(1)
+				.map(mapper::toResponse);
+	}
+
+	@Override
+	public Flux<OrgResponseDTO> getLeaves(Long orgId) {
+		return repo.existsById(orgId)
+				.flatMapMany(exists -> exists
+						? repo.findLeavesUnder(orgId)
+						: Flux.error(new ResourceNotFoundException("Organization not found: " + orgId)))
+				.map(mapper::toResponse);
+	}
+
+	@Override
+	public Flux<OrgResponseDTO> getByLevel(int minLevel, int maxLevel) {
+		if (minLevel < 0 || maxLevel < minLevel) {
+			return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Expected 0 <= min <= max, got min=" + minLevel + ", max=" + maxLevel));
+		}
+		return repo.findByLevelBetween(minLevel, maxLevel)
+				.map(mapper::toResponse);
+	}
+
+	@Override
+	public Flux<OrgResponseDTO> getAncestors(Long orgId) {
+		return repo.findAncestry(orgId)
+				.switchIfEmpty(Flux.error(new ResourceNotFoundException("Organization not found: " + orgId)))
+				.skip(1)
+				.map(mapper::toResponse);
+	}
+
+	/**
+	 * Served from the in-memory tree; until it has loaded, from the ancestor chain in Postgres.
+	 */
+	@Override
+	public Mono<Boolean> isDescendantOf(Long orgId, Long ancestorId) {
+		if (orgTree.isReady()) {
+			return Mono.just(orgTree.current().isDescendantOf(orgId, ancestorId));
+		}
+		return repo.findAncestry(orgId)
+				.skip(1)
+				.any(org -> org.getOrgId().equals(ancestorId));
+	}
+
+	@Override
+	public Flux<OrgResponseDTO> getPath(Long orgId) {
+		return repo.findAncestry(orgId)
+				.map(mapper::toResponse)
+				.collectList()
+				.flatMapMany(chain -> {
+					if (chain.isEmpty()) {
+						return Flux.error(new ResourceNotFoundException("Organization not found: " + orgId));
+					}
+					Collections.reverse(chain);
+					return Flux.fromIterable(chain);
+				});
 	}
 
 	@Override
@@ -71,26 +438,83 @@ public class OrganizationServiceImpl implements OrganizationService {
 	                    .hasElements()
 	                    .flatMap(hasChildren -> {
 	                        if (hasChildren) {
-	                            return Mono.error(
-	                                new IllegalStateException("Cannot delete: organization has child organizations")
-	                            );
+	                            return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT,
+	                                "Cannot delete: organization has child organizations (use cascade=true)"));
 	                        }
-	                        return repo.deleteById(orgId);
+	                        return repo.deleteById(orgId)
+	                                .doOnSuccess(done -> orgTree.remove(orgId));
 	                    });
 	        });
 	}
 
+	// orgId and everything below it, deepest first; the walk is the same as findSubtree.
+	// FOR UPDATE on the result keeps children from being attached to the subtree while it is deleted
+	private static final String WALK_SUBTREE = "WITH RECURSIVE subtree AS ("
+			+ " SELECT org_id, 0 AS depth, ARRAY[org_id] AS path FROM organization WHERE org_id = $1"
+			+ " UNION ALL"
+			+ " SELECT c.org_id, s.depth + 1, s.path || c.org_id FROM organization c JOIN subtree s ON c.parent_org_id = s.org_id"
+			+ " WHERE NOT c.org_id = ANY(s.path))"
+			+ " SELECT o.org_id FROM organization o JOIN subtree s ON o.org_id = s.org_id"
+			+ " ORDER BY s.depth DESC, o.org_id FOR UPDATE OF o";
+
+	private static final String DELETE_BY_IDS = "DELETE FROM organization WHERE org_id = ANY($1) RETURNING org_id";
+
+	/**
+	 * Removes orgId and everything below it in one transaction. The subtree is walked once,
+	 * then deleted leaves first by id, app.org.cascade-delete.batch-size orgs per statement,
+	 * so a subtree up to that size is a single DELETE ... RETURNING and a larger one never
+	 * binds an unbounded array or re-walks what is left.
+	 */
+	@Override
+	public Mono<OrgDeleteResultDTO> deleteSubtree(Long orgId) {
+		return inTransaction(tx -> walkSubtree(tx, orgId)
+						.flatMap(ids -> ids.isEmpty()
+								? Mono.<List<Long>>error(new ResourceNotFoundException("Organization not found: " + orgId))
+								: Flux.range(0, (ids.size() + cascadeBatchSize - 1) / cascadeBatchSize)
+										.concatMap(i -> deleteByIds(tx, ids.subList(i * cascadeBatchSize,
+												Math.min(ids.size(), (i + 1) * cascadeBatchSize))))
+										.collectList()))
+				.doOnNext(deleted -> orgTree.remove(deleted.stream().mapToLong(Long::longValue).toArray()))
+				.map(deleted -> new OrgDeleteResultDTO(orgId, deleted.size(), deleted));
+	}
+
+	private Mono<List<Long>> walkSubtree(Connection connection, Long orgId) {
+		return Flux.from(connection.createStatement(WALK_SUBTREE)
+						.bind(0, orgId)
+						.execute())
+				.flatMap(result -> result.map((row, meta) -> row.get("org_id", Long.class)))
+				.collectList();
+	}
+
+	private Flux<Long> deleteByIds(Connection connection, List<Long> ids) {
+		return Flux.from(connection.createStatement(DELETE_BY_IDS)
+						.bind(0, ids.toArray(Long[]::new))
+						.execute())
+				.flatMap(result -> result.map((row, meta) -> row.get("org_id", Long.class)));
+	}
+
 	@Override
-	public Mono<PageResponse<OrgResponseDTO>> getPaginated(int page, int size) {
+	public Mono<PageResponse<OrgResponseDTO>> getPaginated(int page, int size, CountMode countMode) {
 	    long offset = (long) page * size;
 
-	    return repo.countAllOrganizations()
-	            .flatMap(total ->
-	                repo.findAllPaginated(offset, size)
-	                    .map(mapper::toResponse)
-	                    .collectList()
-	                    .map(list -> new PageResponse<>(list, page, size, total))
-	            );
+	    Mono<Long> total = switch (countMode) {
+	        case EXACT -> repo.countAllOrganizations();
+	        case ESTIMATED -> cachedRootCount;
+	        case NONE -> Mono.empty();
+	    };
+
+	    // one extra row tells whether a next page exists, whatever the count mode
+	    return Mono.zip(
+	                repo.findAllPaginated(offset, size + 1).map(mapper::toResponse).collectList(),
+	                total.map(Optional::of).defaultIfEmpty(Optional.empty()))
+	            .map(tuple -> {
+	                List<OrgResponseDTO> list = tuple.getT1();
+	                boolean hasNext = list.size() > size;
+	                if (hasNext) {
+	                    list = list.subList(0, size);
+	                }
+	                return new PageResponse<>(list, page, size, tuple.getT2().orElse(null), hasNext);
+	            });
 	}
 
 	
@@ -1,5 +1,11 @@
 package com.organization_service.organization_service.service;
 
+import java.util.List;
+
+import com.organization_service.organization_service.dto.BatchResponseDTO;
+import com.organization_service.organization_service.dto.CountMode;
+import com.organization_service.organization_service.dto.OrgDeleteResultDTO;
+import com.organization_service.organization_service.dto.OrgPatchDTO;
 import com.organization_service.organization_service.dto.OrgRequestDTO;
 import com.organization_service.organization_service.dto.OrgResponseDTO;
 import com.organization_service.organization_service.dto.PageResponse;
@@ -13,11 +19,36 @@ public interface OrganizationService {
 
     Mono<OrgResponseDTO> update(Long orgId, OrgRequestDTO request);
 
+    Mono<OrgResponseDTO> patch(Long orgId, OrgPatchDTO request);
+
     Mono<OrgResponseDTO> getById(Long orgId);
 
     Flux<OrgResponseDTO> getAll();
 
+    Mono<BatchResponseDTO<OrgResponseDTO>> getByIds(List<Long> ids);
+
+    // Everything below orgId, depth-first; maxDepth (optional) limits how many levels down
+    Flux<OrgResponseDTO> getDescendants(Long orgId, Integer maxDepth);
+
+    // Orgs below orgId without children
+    Flux<OrgResponseDTO> getLeaves(Long orgId);
+
+    // All orgs with minLevel <= level <= maxLevel (roots are level 0)
+    Flux<OrgResponseDTO> getByLevel(int minLevel, int maxLevel);
+
+    // Parent first, root last
+    Flux<OrgResponseDTO> getAncestors(Long orgId);
+
+    // True when ancestorId is above orgId in the hierarchy
+    Mono<Boolean> isDescendantOf(Long orgId, Long ancestorId);
+
+    // Breadcrumb: root first, orgId last
+    Flux<OrgResponseDTO> getPath(Long orgId);
+
     Mono<Void> delete(Long orgId);
-    public Mono<PageResponse<OrgResponseDTO>> getPaginated(int page, int size);
+
+    // orgId and its whole subtree, in one transaction
+    Mono<OrgDeleteResultDTO> deleteSubtree(Long orgId);
+    public Mono<PageResponse<OrgResponseDTO>> getPaginated(int page, int size, CountMode countMode);
     
 }
\ No newline at end of file
@@ -0,0 +1,301 @@
+package com.organization_service.organization_service.tree;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the organization hierarchy (ids and parents only), held in flat
+ * primitive arrays: org ids sorted ascending, and per position the parent's position,
+ * the depth (roots are 0) and the subtree size (including the node itself).
+ *
+ * Lookups are a binary search plus a walk up the parent positions, so membership checks
+ * cost O(log n + depth) and allocate nothing. Changes never modify a snapshot; {@link #with}
+ * and {@link #without} return a new one with the next version, sharing the arrays when
+ * nothing changed.
+ *
+ * A parent id that is not in the tree makes the node a root. A parent cycle (only possible
+ * through bad data) is cut at the node where it is detected, which then becomes a root.
+ */
+public final class OrgTree {
+
+    /** Parent id of a root in the arrays passed to {@link #of}. */
+    public static final long NO_PARENT = 0L;
+
+    public static final OrgTree EMPTY = of(0, new long[0], new long[0]);
+
+    private final long version;
+    private final long[] ids;
+    private final int[] parent;
+    private final int[] depth;
+    private final int[] subtreeSize;
+
+    private OrgTree(long version, long[] ids, int[] parent, int[] depth, int[] subtreeSize) {
+        this.version = version;
+        this.ids = ids;
+        this.parent = parent;
+        this.depth = depth;
+        this.subtreeSize = subtreeSize;
+    }
+
+    /**
+     * Builds a tree from parallel arrays: parentIds[i] is the parent of orgIds[i],
+     * or {@link #NO_PARENT}. Org ids must be distinct.
+     */
+    public static OrgTree of(long version, long[] orgIds, long[] parentIds) {
+        int n = orgIds.length;
+        long[] ids = orgIds.clone();
+        Arrays.sort(ids);
+
+        long[] parentIdAt = new long[n];
+        for (int i = 0; i < n; i++) {
+            parentIdAt[Arrays.binarySearch(ids, orgIds[i])] = parentIds[i];
+        }
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) {
+            int p = parentIdAt[i] == NO_PARENT ? -1 : Arrays.binarySearch(ids, parentIdAt[i]);
+            parent[i] = p < 0 ? -1 : p;
+        }
+
+        int[] depth = depths(parent);
+        return new OrgTree(version, ids, parent, depth, subtreeSizes(parent, depth));
+    }
+
+    // Walks each chain up to a node of known depth, then assigns depths on the way back down
+    private static int[] depths(int[] parent) {
+        int n = parent.length;
+        int[] depth = new int[n];
+        Arrays.fill(depth, -1);
+        int[] walkOf = new int[n];
+        int[] stack = new int[n];
+
+        for (int start = 0; start < n; start++) {
+            if (depth[start] >= 0) {
+                continue;
+            }
+            int walk = start + 1;
+            int top = 0;
+            int v = start;
+            while (v >= 0 && depth[v] < 0) {
+                if (walkOf[v] == walk) {
+                    // back at a node of this walk: a cycle; make v a root to break it
+                    parent[v] = -1;
+                    depth[v] = 0;
+                    break;
+                }
+                walkOf[v] = walk;
+                stack[top++] = v;
+                v = parent[v];
+            }
+            while (top > 0) {
+                int x = stack[--top];
+                depth[x] = parent[x] < 0 ? 0 : depth[parent[x]] + 1;
+            }
+        }
+        return depth;
+    }
+
+    // Deepest nodes first, each adding its size to its parent
+    private static int[] subtreeSizes(int[] parent, int[] depth) {
+        int n = parent.length;
+        int maxDepth = 0;
+        for (int d : depth) {
+            maxDepth = Math.max(maxDepth, d);
+        }
+        int[] start = new int[maxDepth + 2];
+        for (int d : depth) {
+            start[d + 1]++;
+        }
+        for (int d = 0; d <= maxDepth; d++) {
+            start[d + 1] += start[d];
+        }
+        int[] byDepth = new int[n];
+        int[] next = Arrays.copyOf(start, start.length);
+        for (int i = 0; i < n; i++) {
+            byDepth[next[depth[i]]++] = i;
+        }
+
+        int[] size = new int[n];
+        Arrays.fill(size, 1);
+        for (int k = n - 1; k >= 0; k--) {
+            int x = byDepth[k];
+            if (parent[x] >= 0) {
+                size[parent[x]] += size[x];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * A copy with orgId added, or re-parented if already present. A new org is a leaf, so it
+     * is spliced into the arrays in O(n) with its ancestors' subtree sizes bumped; only a
+     * re-parent, which moves a whole subtree, rebuilds the tree.
+     */
+    public OrgTree with(long orgId, Long parentId) {
+        long parentOrgId = parentId == null ? NO_PARENT : parentId;
+        int p = parentOrgId == NO_PARENT ? -1 : Math.max(-1, Arrays.binarySearch(ids, parentOrgId));
+        int at = Arrays.binarySearch(ids, orgId);
+        if (at < 0) {
+            return inserted(-at - 1, orgId, p);
+        }
+        if (parent[at] == p) {
+            return new OrgTree(version + 1, ids, parent, depth, subtreeSize);
+        }
+        long[] parentIds = parentIds();
+        parentIds[at] = parentOrgId;
+        return of(version + 1, ids, parentIds);
+    }
+
+    // p is the parent's position in the current arrays, or -1
+    private OrgTree inserted(int slot, long orgId, int p) {
+        int n = ids.length;
+        long[] newIds = new long[n + 1];
+        int[] newParent = new int[n + 1];
+        int[] newDepth = new int[n + 1];
+        int[] newSize = new int[n + 1];
+        System.arraycopy(ids, 0, newIds, 0, slot);
+        System.arraycopy(ids, slot, newIds, slot + 1, n - slot);
+        System.arraycopy(depth, 0, newDepth, 0, slot);
+        System.arraycopy(depth, slot, newDepth, slot + 1, n - slot);
+        System.arraycopy(subtreeSize, 0, newSize, 0, slot);
+        System.arraycopy(subtreeSize, slot, newSize, slot + 1, n - slot);
+        for (int i = 0; i < n; i++) {
+            int q = parent[i];
+            newParent[i < slot ? i : i + 1] = q >= slot ? q + 1 : q;
+        }
+
+        int at = p < 0 ? -1 : (p >= slot ? p + 1 : p);
+        newIds[slot] = orgId;
+        newParent[slot] = at;
+        newDepth[slot] = at < 0 ? 0 : newDepth[at] + 1;
+        newSize[slot] = 1;
+        for (int a = at; a >= 0; a = newParent[a]) {
+            newSize[a]++;
+        }
+        return new OrgTree(version + 1, newIds, newParent, newDepth, newSize);
+    }
+
+    /**
+     * A copy without the given orgs; their remaining children become roots. Removing whole
+     * subtrees (the usual case) compacts the arrays in O(n) and shrinks the ancestors'
+     * subtree sizes; leaving orphans behind changes their depths and rebuilds the tree.
+     */
+    public OrgTree without(long... orgIds) {
+        int n = ids.length;
+        boolean[] gone = new boolean[n];
+        int removed = 0;
+        for (long orgId : orgIds) {
+            int i = Arrays.binarySearch(ids, orgId);
+            if (i >= 0 && !gone[i]) {
+                gone[i] = true;
+                removed++;
+            }
+        }
+        if (removed == 0) {
+            return new OrgTree(version + 1, ids, parent, depth, subtreeSize);
+        }
+
+        int[] size = subtreeSize.clone();
+        for (int i = 0; i < n; i++) {
+            boolean parentGone = parent[i] >= 0 && gone[parent[i]];
+            if (!gone[i] && parentGone) {
+                return rebuiltWithout(gone, n - removed);
+            }
+            if (gone[i] && parent[i] >= 0 && !parentGone) {
+                // top of a removed subtree: its ancestors lose all of it
+                for (int a = parent[i]; a >= 0; a = parent[a]) {
+                    size[a] -= subtreeSize[i];
+                }
+            }
+        }
+
+        int m = n - removed;
+        int[] newIndex = new int[n];
+        long[] newIds = new long[m];
+        int[] newParent = new int[m];
+        int[] newDepth = new int[m];
+        int[] newSize = new int[m];
+        for (int i = 0, k = 0; i < n; i++) {
+            newIndex[i] = k;
+            if (!gone[i]) {
+                newIds[k] = ids[i];
+                newDepth[k] = depth[i];
+                newSize[k] = size[i];
+                k++;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (!gone[i]) {
+                newParent[newIndex[i]] = parent[i] < 0 ? -1 : newIndex[parent[i]];
+            }
+        }
+        return new OrgTree(version + 1, newIds, newParent, newDepth, newSize);
+    }
+
+    private OrgTree rebuiltWithout(boolean[] gone, int m) {
+        long[] keptIds = new long[m];
+        long[] keptParents = new long[m];
+        for (int i = 0, k = 0; i < ids.length; i++) {
+            if (!gone[i]) {
+                keptIds[k] = ids[i];
+                keptParents[k] = parent[i] < 0 || gone[parent[i]] ? NO_PARENT : ids[parent[i]];
+                k++;
+            }
+        }
+        return of(version + 1, keptIds, keptParents);
+    }
+
+    private long[] parentIds() {
+        long[] parentIds = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            parentIds[i] = parent[i] < 0 ? NO_PARENT : ids[parent[i]];
+        }
+        return parentIds;
+    }
+
+    /** The same tree under another version number; the arrays are shared. */
+    OrgTree withVersion(long newVersion) {
+        return new OrgTree(newVersion, ids, parent, depth, subtreeSize);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(long orgId) {
+        return Arrays.binarySearch(ids, orgId) >= 0;
+    }
+
+    /** Depth of orgId (roots are 0), or -1 when it is not in the tree. */
+    public int depth(long orgId) {
+        int i = Arrays.binarySearch(ids, orgId);
+        return i < 0 ? -1 : depth[i];
+    }
+
+    /** Nodes in orgId's subtree, itself included; 0 when it is not in the tree. */
+    public int subtreeSize(long orgId) {
+        int i = Arrays.binarySearch(ids, orgId);
+        return i < 0 ? 0 : subtreeSize[i];
+    }
+
+    /** True when ancestorId is a proper ancestor of orgId. */
+    public boolean isDescendantOf(long orgId, long ancestorId) {
+        int x = Arrays.binarySearch(ids, orgId);
+        int a = Arrays.binarySearch(ids, ancestorId);
+        if (x < 0 || a < 0 || depth[x] <= depth[a]) {
+            return false;
+        }
+        for (int steps = depth[x] - depth[a]; steps > 0; steps--) {
+            x = parent[x];
+        }
+        return x == a;
+    }
+
+    /** Approximate heap footprint of the arrays, for the memory gauge. */
+    public long memoryBytes() {
+        // 8 bytes per id, 4 each for parent, depth and subtree size, plus array and object headers
+        return (long) ids.length * (8 + 4 + 4 + 4) + 4 * 16 + 32;
+    }
+}
@@ -0,0 +1,168 @@
+package com.organization_service.organization_service.tree;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds the current {@link OrgTree}. Local writes (create / update / patch / delete in
+ * OrganizationServiceImpl) apply their change to a copy and swap it in, one at a time;
+ * readers take the current snapshot without locking.
+ *
+ * The tree is loaded at startup and reloaded every app.org-tree.refresh-interval to pick up
+ * writes made by other replicas. Local changes made while a reload reads the table are
+ * replayed onto the loaded tree before it is published. Until the first load,
+ * {@link #isReady()} is false and callers should ask the database.
+ */
+@Slf4j
+@Component
+public class OrgTreeIndex {
+
+    private final R2dbcEntityTemplate template;
+    private final Duration refreshInterval;
+    private final Timer loadTimer;
+
+    private final AtomicReference<OrgTree> tree = new AtomicReference<>(OrgTree.EMPTY);
+    private volatile boolean ready;
+    // local changes since the running reload started (guarded by this), replayed onto its result
+    private List<UnaryOperator<OrgTree>> changedDuringReload;
+    private Disposable refresher;
+
+    public OrgTreeIndex(R2dbcEntityTemplate template,
+                        MeterRegistry registry,
+                        @Value("${app.org-tree.refresh-interval:5m}") Duration refreshInterval) {
+        this.template = template;
+        this.refreshInterval = refreshInterval;
+
+        Gauge.builder("org.tree.version", tree, t -> t.get().version())
+                .description("Version of the current organization tree snapshot")
+                .register(registry);
+        Gauge.builder("org.tree.nodes", tree, t -> t.get().size())
+                .description("Organizations in the current tree snapshot")
+                .register(registry);
+        Gauge.builder("org.tree.memory", tree, t -> t.get().memoryBytes())
+                .baseUnit("bytes")
+                .description("Approximate heap used by the current tree snapshot")
+                .register(registry);
+        this.loadTimer = Timer.builder("org.tree.load")
+                .description("Time to load the organization tree from Postgres")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresher = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reload()
+                        .onErrorResume(e -> {
+                            log.error("OrgTreeIndex: reload failed, keeping the previous tree", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.dispose();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public OrgTree current() {
+        return tree.get();
+    }
+
+    /** Record a created org, or a changed parent. */
+    public void put(Long orgId, Long parentOrgId) {
+        change(t -> t.with(orgId, parentOrgId));
+    }
+
+    public void remove(long... orgIds) {
+        change(t -> t.without(orgIds));
+    }
+
+    private synchronized void change(UnaryOperator<OrgTree> change) {
+        if (changedDuringReload != null) {
+            changedDuringReload.add(change);
+        }
+        tree.set(change.apply(tree.get()));
+    }
+
+    Mono<OrgTree> reload() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            beginReload();
+            return template.getDatabaseClient()
+                    .sql("SELECT org_id, parent_org_id FROM organization")
+                    .map((row, meta) -> new long[]{
+                            row.get("org_id", Long.class),
+                            parentOf(row.get("parent_org_id", Long.class))})
+                    .all()
+                    .collectList()
+                    .map(rows -> finishReload(build(rows)))
+                    .doOnNext(published -> {
+                        loadTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                        log.debug("OrgTreeIndex: loaded {} organizations (version {})",
+                                published.size(), published.version());
+                    })
+                    .doFinally(signal -> abandonReload());
+        });
+    }
+
+    synchronized void beginReload() {
+        changedDuringReload = new ArrayList<>();
+    }
+
+    // publishes the loaded tree with the local changes made since beginReload replayed onto it
+    synchronized OrgTree finishReload(OrgTree loaded) {
+        OrgTree merged = loaded.withVersion(tree.get().version() + 1);
+        if (changedDuringReload != null) {
+            for (UnaryOperator<OrgTree> change : changedDuringReload) {
+                merged = change.apply(merged);
+            }
+            changedDuringReload = null;
+        }
+        tree.set(merged);
+        ready = true;
+        return merged;
+    }
+
+    private synchronized void abandonReload() {
+        changedDuringReload = null;
+    }
+
+    private static long parentOf(Long parentOrgId) {
+        return parentOrgId == null ? OrgTree.NO_PARENT : parentOrgId;
+    }
+
+    private static OrgTree build(List<long[]> rows) {
+        long[] orgIds = new long[rows.size()];
+        long[] parentIds = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            orgIds[i] = rows.get(i)[0];
+            parentIds[i] = rows.get(i)[1];
+        }
+        return OrgTree.of(0, orgIds, parentIds);
+    }
+}
@@ -12,4 +12,32 @@ CREATE TABLE IF NOT EXISTS organization (
     zipcode VARCHAR(20),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+);
+
+-- Optimistic concurrency: bumped on every update, checked by PATCH
+ALTER TABLE organization ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Hierarchy walks join children on parent_org_id (descendants, child checks on delete)
+CREATE INDEX IF NOT EXISTS idx_organization_parent_org_id ON organization (parent_org_id, org_id);
+
+-- Depth below the root (roots are 0). Backfills rows written before the service maintained it;
+-- orgs whose parent no longer exists count as roots. A no-op once every level is right.
+-- (DO block: the init script runner cannot read this driver's update counts)
+DO '
+BEGIN
+    UPDATE organization o SET level = t.level
+    FROM (WITH RECURSIVE tree AS (
+              SELECT org_id, 0 AS level, ARRAY[org_id] AS path FROM organization r
+              WHERE r.parent_org_id IS NULL
+                 OR NOT EXISTS (SELECT 1 FROM organization p WHERE p.org_id = r.parent_org_id)
+              UNION ALL
+              SELECT c.org_id, t.level + 1, t.path || c.org_id FROM organization c
+              JOIN tree t ON c.parent_org_id = t.org_id
+              WHERE NOT c.org_id = ANY(t.path))
+          SELECT org_id, level FROM tree) t
+    WHERE o.org_id = t.org_id AND o.level IS DISTINCT FROM t.level;
+END;
+';
+
+-- Level-bounded listings (byLevel)
+CREATE INDEX IF NOT EXISTS idx_organization_level ON organization (level, org_id);
@@ -0,0 +1,39 @@
+package com.organization_service.organization_service.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OrgTreeIndexTest {
+
+	private final OrgTreeIndex index = new OrgTreeIndex(null, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+
+	@Test
+	void reloadKeepsLocalChangesMadeWhileItRan() {
+		index.put(1L, null);
+		index.put(2L, 1L);
+		long versionBefore = index.current().version();
+
+		index.beginReload();
+		index.put(3L, 2L);   // created after the reload read the table
+		index.remove(4L);    // deleted after the reload read it
+		// the reload saw 1 -> 2, 1 -> 4 and 5, a root created on another replica
+		OrgTree published = index.finishReload(OrgTree.of(0,
+				new long[]{1, 2, 4, 5},
+				new long[]{OrgTree.NO_PARENT, 1, 1, OrgTree.NO_PARENT}));
+
+		assertTrue(index.isReady());
+		assertEquals(published, index.current());
+		assertTrue(published.isDescendantOf(3, 1));
+		assertFalse(published.contains(4));
+		assertTrue(published.contains(5));
+		assertEquals(3, published.subtreeSize(1));
+		assertTrue(published.version() > versionBefore + 2);
+	}
+}
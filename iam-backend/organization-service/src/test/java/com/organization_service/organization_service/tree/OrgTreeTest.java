@@ -0,0 +1,117 @@
+package com.organization_service.organization_service.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class OrgTreeTest {
+
+	// 1 -> 2 -> 4, 1 -> 3, 5 alone
+	private final OrgTree tree = OrgTree.of(1,
+			new long[]{4, 1, 3, 2, 5},
+			new long[]{2, OrgTree.NO_PARENT, 1, 1, OrgTree.NO_PARENT});
+
+	@Test
+	void answersMembershipDepthAndSubtreeSize() {
+		assertTrue(tree.isDescendantOf(4, 1));
+		assertTrue(tree.isDescendantOf(4, 2));
+		assertFalse(tree.isDescendantOf(4, 3));
+		assertFalse(tree.isDescendantOf(1, 1));
+		assertFalse(tree.isDescendantOf(2, 4));
+		assertFalse(tree.isDescendantOf(99, 1));
+
+		assertEquals(0, tree.depth(1));
+		assertEquals(2, tree.depth(4));
+		assertEquals(-1, tree.depth(99));
+		assertEquals(4, tree.subtreeSize(1));
+		assertEquals(2, tree.subtreeSize(2));
+		assertEquals(1, tree.subtreeSize(5));
+	}
+
+	@Test
+	void copiesOnWriteWithTheNextVersion() {
+		OrgTree moved = tree.with(2, 5L).with(6, 4L);
+
+		assertEquals(3, moved.version());
+		assertTrue(moved.isDescendantOf(6, 5));
+		assertFalse(moved.isDescendantOf(4, 1));
+		assertEquals(4, moved.subtreeSize(5));
+		assertEquals(3, moved.depth(6));
+		// the original snapshot is untouched
+		assertTrue(tree.isDescendantOf(4, 1));
+		assertEquals(5, tree.size());
+
+		OrgTree pruned = moved.without(2);
+		assertEquals(5, pruned.size());
+		assertEquals(0, pruned.depth(4));
+		assertEquals(1, pruned.subtreeSize(5));
+	}
+
+	@Test
+	void cutsParentCycles() {
+		OrgTree cyclic = OrgTree.of(1, new long[]{1, 2, 3}, new long[]{3, 1, 2});
+
+		// 1 -> 3 -> 2 -> 1: the walk from 1 comes back to 1, which becomes the root
+		assertEquals(0, cyclic.depth(1));
+		assertEquals(2, cyclic.depth(3));
+		assertEquals(3, cyclic.subtreeSize(1));
+		assertTrue(cyclic.isDescendantOf(3, 1));
+	}
+
+	@Test
+	void splicedInsertsAndSubtreeRemovalsMatchAFullBuild() {
+		Random random = new Random(42);
+		int n = 300;
+		long[] orgIds = new long[n];
+		long[] parentIds = new long[n];
+		OrgTree spliced = OrgTree.EMPTY;
+		for (int i = 0; i < n; i++) {
+			// ids arrive out of order so inserts land all over the arrays
+			orgIds[i] = 1 + random.nextInt(1_000_000);
+			while (spliced.contains(orgIds[i])) {
+				orgIds[i]++;
+			}
+			parentIds[i] = i == 0 || random.nextInt(10) == 0 ? OrgTree.NO_PARENT : orgIds[random.nextInt(i)];
+			spliced = spliced.with(orgIds[i], parentIds[i]);
+		}
+		assertSameShape(OrgTree.of(0, orgIds, parentIds), spliced, orgIds);
+
+		// drop the subtree under some node: whole subtrees take the compacting path
+		long top = orgIds[7];
+		int kept = 0;
+		long[] keptIds = new long[n];
+		long[] keptParents = new long[n];
+		long[] goneIds = new long[n];
+		int gone = 0;
+		for (int i = 0; i < n; i++) {
+			if (orgIds[i] == top || spliced.isDescendantOf(orgIds[i], top)) {
+				goneIds[gone++] = orgIds[i];
+			} else {
+				keptIds[kept] = orgIds[i];
+				keptParents[kept++] = parentIds[i];
+			}
+		}
+		OrgTree pruned = spliced.without(Arrays.copyOf(goneIds, gone));
+		assertEquals(n - gone, pruned.size());
+		assertSameShape(OrgTree.of(0, Arrays.copyOf(keptIds, kept), Arrays.copyOf(keptParents, kept)),
+				pruned, orgIds);
+	}
+
+	private static void assertSameShape(OrgTree expected, OrgTree actual, long[] orgIds) {
+		assertEquals(expected.size(), actual.size());
+		for (long id : orgIds) {
+			assertEquals(expected.depth(id), actual.depth(id), () -> "depth of " + id);
+			assertEquals(expected.subtreeSize(id), actual.subtreeSize(id), () -> "subtree size of " + id);
+		}
+		for (int i = 0; i < orgIds.length; i += 7) {
+			for (int j = 0; j < orgIds.length; j += 5) {
+				assertEquals(expected.isDescendantOf(orgIds[i], orgIds[j]), actual.isDescendantOf(orgIds[i], orgIds[j]));
+			}
+		}
+	}
+}
@@ -1,14 +1,17 @@
 package com.role_service.role_service.controller;
 
-import java.util.List;
-
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.role_service.role_service.dto.BatchRequestDTO;
+import com.role_service.role_service.dto.BatchResponseDTO;
+import com.role_service.role_service.dto.RolePatchDTO;
 import com.role_service.role_service.dto.RoleRequestDTO;
 import com.role_service.role_service.dto.RoleResponseDTO;
 import com.role_service.role_service.service.RoleService;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -34,10 +37,22 @@ public class RoleController {
                       .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
-    @GetMapping
-    public Mono<ResponseEntity<List<RoleResponseDTO>>> all() {
-        return service.getAll()
-                      .collectList()
+    /**
+     * All roles, streamed as they are read from the database:
+     * a chunked JSON array by default, one object per line with Accept: application/x-ndjson.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RoleResponseDTO> all() {
+        return service.getAll();
+    }
+
+    /**
+     * POST /api/roles/batch  {"ids": [1, 2, 3]}
+     * Many roles in one query; ids without a role come back in missing.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResponseDTO<RoleResponseDTO>>> batch(@Valid @RequestBody BatchRequestDTO req) {
+        return service.getByIds(req.getIds())
                       .map(ResponseEntity::ok);
     }
 
@@ -48,6 +63,13 @@ public class RoleController {
                       .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    // Partial update; 400 without a version, 404 if missing, 409 if the version is stale
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<RoleResponseDTO>> patch(@PathVariable Long id, @Valid @RequestBody RolePatchDTO req) {
+        return service.patch(id, req)
+                      .map(ResponseEntity::ok);
+    }
+
     @DeleteMapping("/{id}")
     public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
         return service.delete(id)
@@ -0,0 +1,12 @@
+package com.role_service.role_service.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BatchRequestDTO {
+    @NotNull(message = "ids is required")
+    private List<Long> ids;
+}
@@ -0,0 +1,18 @@
+package com.role_service.role_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Partial update: null fields are left unchanged.
+ * version is the value last read; a stale version is rejected with 409.
+ */
+@Data
+public class RolePatchDTO {
+    private String name;
+    private String description;
+    private String status;
+
+    @NotNull(message = "Version is required")
+    private Long version;
+}
@@ -14,4 +14,5 @@ public class RoleResponseDTO {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -1,12 +1,16 @@
 package com.role_service.role_service.exception;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
 
 
 @RestControllerAdvice
@@ -18,6 +22,27 @@ public class GlobalExceptionHandler {
                 .body(Map.of("timestamp", Instant.now(), "message", ex.getMessage()));
     }
 
+    // @Valid request bodies: 400 with the message of every rejected field
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<?> handleValidation(WebExchangeBindException ex) {
+        Map<String, String> details = new HashMap<>();
+        ex.getFieldErrors().forEach(error -> details.put(error.getField(), error.getDefaultMessage()));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("timestamp", Instant.now(), "message", "Validation failed", "details", details));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> handleConflict(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("timestamp", Instant.now(), "message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<?> handleStatus(ResponseStatusException ex) {
+        return ResponseEntity.status(ex.getStatusCode())
+                .body(Map.of("timestamp", Instant.now(), "message", String.valueOf(ex.getReason())));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleAll(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -1,7 +1,11 @@
 package com.role_service.role_service.mapper;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.springframework.stereotype.Component;
 
+import com.role_service.role_service.dto.RolePatchDTO;
 import com.role_service.role_service.dto.RoleRequestDTO;
 import com.role_service.role_service.dto.RoleResponseDTO;
 import com.role_service.role_service.entity.Role;
@@ -24,9 +28,19 @@ public class RoleMapper {
                 .status(e.getStatus())
                 .createdAt(e.getCreatedAt())
                 .updatedAt(e.getUpdatedAt())
+                .version(e.getVersion())
                 .build();
     }
 
+    // Column -> new value for the fields present in a PATCH
+    public Map<String, Object> toChanges(RolePatchDTO r) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if(r.getName() != null) changes.put("name", r.getName());
+        if(r.getDescription() != null) changes.put("description", r.getDescription());
+        if(r.getStatus() != null) changes.put("status", r.getStatus());
+        return changes;
+    }
+
     public void updateEntity(Role e, RoleRequestDTO r) {
         if(r.getName() != null) e.setName(r.getName());
         if(r.getDescription() != null) e.setDescription(r.getDescription());
@@ -1,9 +1,21 @@
 package com.role_service.role_service.service.Impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.role_service.role_service.dto.BatchResponseDTO;
+import com.role_service.role_service.dto.RolePatchDTO;
 import com.role_service.role_service.dto.RoleRequestDTO;
 import com.role_service.role_service.dto.RoleResponseDTO;
 import com.role_service.role_service.entity.Role;
@@ -22,6 +34,13 @@ public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository repo;
     private final RoleMapper mapper;
+    private final R2dbcEntityTemplate template;
+
+    @Value("${app.export.fetch-size:500}")
+    private int exportFetchSize;
+
+    @Value("${app.batch.max-ids:500}")
+    private int maxBatchIds;
 
     @Override
     public Mono<RoleResponseDTO> create(RoleRequestDTO request) {
@@ -44,6 +63,46 @@ public class RoleServiceImpl implements RoleService {
                    .map(mapper::toResponse);
     }
 
+    /**
+     * Single UPDATE of the supplied columns, matched on (role_id, version).
+     * No match -> existence check: 404 if the role is gone, 409 if the version is stale.
+     */
+    @Override
+    public Mono<RoleResponseDTO> patch(Long id, RolePatchDTO request) {
+        Map<String, Object> changes = mapper.toChanges(request);
+
+        List<Object> values = new ArrayList<>(changes.values());
+        StringBuilder sql = new StringBuilder("UPDATE role SET ");
+        int p = 1;
+        for (String column : changes.keySet()) {
+            sql.append(column).append(" = $").append(p++).append(", ");
+        }
+        sql.append("updated_at = $").append(p++)
+                .append(", version = version + 1 WHERE role_id = $").append(p++)
+                .append(" AND version = $").append(p).append(" RETURNING *");
+        values.add(LocalDateTime.now());
+        values.add(id);
+        values.add(request.getVersion());
+
+        // raw driver binds: this r2dbc-postgresql version cannot encode io.r2dbc.spi.Parameter,
+        // which DatabaseClient.bind(...) wraps values in
+        return template.getDatabaseClient().sql(sql.toString())
+                   .filter(statement -> {
+                       for (int i = 0; i < values.size(); i++) {
+                           statement.bind(i, values.get(i));
+                       }
+                       return statement;
+                   })
+                   .map((row, meta) -> template.getConverter().read(Role.class, row, meta))
+                   .one()
+                   .switchIfEmpty(Mono.defer(() -> repo.existsById(id)
+                           .flatMap(exists -> Mono.error(exists
+                                   ? new OptimisticLockingFailureException("Role " + id
+                                           + " was modified by someone else (version " + request.getVersion() + " is stale)")
+                                   : new ResourceNotFoundException("Role not found: " + id)))))
+                   .map(mapper::toResponse);
+    }
+
     @Override
     public Mono<RoleResponseDTO> getById(Long id) {
         return repo.findById(id)
@@ -51,12 +110,55 @@ public class RoleServiceImpl implements RoleService {
                    .map(mapper::toResponse);
     }
 
+    /**
+     * Streams all roles in role_id order straight from a database cursor: rows are
+     * fetched app.export.fetch-size at a time as the client reads, never collected in memory.
+     */
     @Override
     public Flux<RoleResponseDTO> getAll() {
-        return repo.findAll()
+        return template.getDatabaseClient().sql("SELECT * FROM role ORDER BY role_id")
+                   .filter(statement -> statement.fetchSize(exportFetchSize))
+                   .map((row, meta) -> template.getConverter().read(Role.class, row, meta))
+                   .all()
                    .map(mapper::toResponse);
     }
 
+    /**
+     * One round trip for many ids: WHERE role_id = ANY($1) with the ids bound as a single array,
+     * so the statement text is the same whatever the batch size.
+     */
+    @Override
+    public Mono<BatchResponseDTO<RoleResponseDTO>> getByIds(List<Long> ids) {
+        List<Long> wanted = ids == null ? List.of()
+                : ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (wanted.size() > maxBatchIds) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchIds + " ids per batch, got " + wanted.size()));
+        }
+        if (wanted.isEmpty()) {
+            return Mono.just(new BatchResponseDTO<>(Map.of(), List.of()));
+        }
+
+        return template.getDatabaseClient().sql("SELECT * FROM role WHERE role_id = ANY($1)")
+                   .filter(statement -> statement.bind(0, wanted.toArray(new Long[0])))
+                   .map((row, meta) -> template.getConverter().read(Role.class, row, meta))
+                   .all()
+                   .collectMap(Role::getRoleId, mapper::toResponse)
+                   .map(rows -> {
+                       Map<Long, RoleResponseDTO> found = new LinkedHashMap<>();
+                       List<Long> missing = new ArrayList<>();
+                       for (Long id : wanted) {
+                           RoleResponseDTO role = rows.get(id);
+                           if (role != null) {
+                               found.put(id, role);
+                           } else {
+                               missing.add(id);
+                           }
+                       }
+                       return new BatchResponseDTO<>(found, missing);
+                   });
+    }
+
     @Override
     public Mono<Void> delete(Long id) {
         return repo.existsById(id)
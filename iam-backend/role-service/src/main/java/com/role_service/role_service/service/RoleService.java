@@ -1,5 +1,9 @@
 package com.role_service.role_service.service;
 
+import java.util.List;
+
+import com.role_service.role_service.dto.BatchResponseDTO;
+import com.role_service.role_service.dto.RolePatchDTO;
 import com.role_service.role_service.dto.RoleRequestDTO;
 import com.role_service.role_service.dto.RoleResponseDTO;
 import reactor.core.publisher.Flux;
@@ -11,9 +15,13 @@ public interface RoleService {
 
     Mono<RoleResponseDTO> update(Long id, RoleRequestDTO request);
 
+    Mono<RoleResponseDTO> patch(Long id, RolePatchDTO request);
+
     Mono<RoleResponseDTO> getById(Long id);
 
     Flux<RoleResponseDTO> getAll();
 
+    Mono<BatchResponseDTO<RoleResponseDTO>> getByIds(List<Long> ids);
+
     Mono<Void> delete(Long id);
 }
\ No newline at end of file
@@ -6,4 +6,7 @@ CREATE TABLE IF NOT EXISTS role (
 
     created_at TIMESTAMP,
     updated_at TIMESTAMP
-);
\ No newline at end of file
+);
+
+-- Optimistic concurrency: bumped on every update, checked by PATCH
+ALTER TABLE role ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
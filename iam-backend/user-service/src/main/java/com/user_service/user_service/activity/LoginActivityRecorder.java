@@ -0,0 +1,165 @@
+package com.user_service.user_service.activity;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind buffer for user_account.last_login.
+ * Logins only touch memory: the latest timestamp per user is kept and flushed every
+ * app.login-activity.flush-interval-ms as one UPDATE ... FROM (VALUES ...) per
+ * app.login-activity.max-batch users. A failed flush puts its rows back for the next one;
+ * whatever is pending is flushed on shutdown.
+ */
+@Slf4j
+@Component
+public class LoginActivityRecorder {
+
+    private static final int PARAMS_PER_ROW = 3;
+
+    record UserKey(long tenantId, long userId) {}
+
+    private final DatabaseClient databaseClient;
+    private final int maxBatch;
+    private final Map<UserKey, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private final Timer flushTimer;
+    private final DistributionSummary flushRows;
+
+    public LoginActivityRecorder(DatabaseClient databaseClient,
+                                 MeterRegistry registry,
+                                 @Value("${app.login-activity.max-batch:1000}") int maxBatch) {
+        this.databaseClient = databaseClient;
+        // Postgres accepts at most 65535 bind parameters per statement
+        this.maxBatch = Math.max(1, Math.min(maxBatch, 65535 / PARAMS_PER_ROW));
+
+        Gauge.builder("user.login_activity.pending", pending, Map::size)
+                .description("Users whose last login is waiting to be flushed")
+                .register(registry);
+        this.flushTimer = Timer.builder("user.login_activity.flush")
+                .description("Time to write one batch of last-login updates")
+                .register(registry);
+        this.flushRows = DistributionSummary.builder("user.login_activity.flush.rows")
+                .description("Users written per last-login batch")
+                .register(registry);
+    }
+
+    public void record(long tenantId, long userId, LocalDateTime at) {
+        pending.merge(new UserKey(tenantId, userId), at, LoginActivityRecorder::latest);
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-activity.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        if (pending.isEmpty() || !flushing.compareAndSet(false, true)) {
+            return;
+        }
+        flush()
+                .doFinally(signal -> flushing.set(false))
+                .subscribe(null, e -> log.warn("LoginActivityRecorder: flush failed: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("LoginActivityRecorder: flushing {} pending last-login updates", pending.size());
+        try {
+            flush().block(Duration.ofSeconds(10));
+        } catch (RuntimeException e) {
+            log.warn("LoginActivityRecorder: shutdown flush failed, {} updates lost: {}", pending.size(), e.getMessage());
+        }
+    }
+
+    // Writes everything pending at subscription time, batch after batch
+    Mono<Void> flush() {
+        return Flux.defer(() -> Flux.fromIterable(drain()))
+                .concatMap(this::write)
+                .then();
+    }
+
+    // Removes all pending entries, grouped into batches of at most maxBatch
+    List<Map<UserKey, LocalDateTime>> drain() {
+        List<Map<UserKey, LocalDateTime>> batches = new ArrayList<>();
+        Map<UserKey, LocalDateTime> batch = new LinkedHashMap<>();
+        for (Iterator<UserKey> it = pending.keySet().iterator(); it.hasNext(); ) {
+            UserKey key = it.next();
+            LocalDateTime at = pending.remove(key);
+            if (at == null) {
+                continue;
+            }
+            batch.put(key, at);
+            if (batch.size() == maxBatch) {
+                batches.add(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private Mono<Void> write(Map<UserKey, LocalDateTime> batch) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(updateSql(batch.size()));
+        int p = 0;
+        for (Map.Entry<UserKey, LocalDateTime> e : batch.entrySet()) {
+            spec = spec.bind(p++, e.getKey().tenantId())
+                    .bind(p++, e.getKey().userId())
+                    .bind(p++, e.getValue());
+        }
+        long start = System.nanoTime();
+        return spec.fetch().rowsUpdated()
+                .doOnSuccess(rows -> {
+                    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    flushRows.record(batch.size());
+                })
+                .doOnError(e -> batch.forEach((key, at) -> pending.merge(key, at, LoginActivityRecorder::latest)))
+                .then();
+    }
+
+    // Never moves last_login backwards; version / updated_at are left alone (not a profile edit)
+    static String updateSql(int rows) {
+        StringBuilder sql = new StringBuilder("UPDATE user_account u SET last_login = v.last_login FROM (VALUES ");
+        for (int r = 0; r < rows; r++) {
+            int base = r * PARAMS_PER_ROW;
+            sql.append(r == 0 ? "(" : ", (")
+                    .append('$').append(base + 1).append("::bigint, ")
+                    .append('$').append(base + 2).append("::bigint, ")
+                    .append('$').append(base + 3).append("::timestamp)");
+        }
+        sql.append(") AS v(tenant_id, user_id, last_login) ")
+                .append("WHERE u.tenant_id = v.tenant_id AND u.user_id = v.user_id ")
+                .append("AND (u.last_login IS NULL OR u.last_login < v.last_login)");
+        return sql.toString();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
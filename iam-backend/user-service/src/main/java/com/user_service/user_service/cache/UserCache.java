@@ -0,0 +1,123 @@
+package com.user_service.user_service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.mapper.UserMapper;
+import com.user_service.user_service.repository.UserRepository;
+import com.user_service.user_service.util.TenantKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache in front of the user lookups by id and by email.
+ * Size-bounded and expiring after write; concurrent misses for the same key share one query.
+ * Absent users are not cached.
+ *
+ * byEmail only maps email -> userId; the user itself always comes from byId, so invalidating
+ * an id is enough. A mapping that went stale (email changed) is detected and reloaded.
+ * Local writes invalidate directly; writes on other replicas arrive via UserChangeListener.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepository userRepository;
+    private final AsyncCache<Long, UserResponseDto> byId;
+    private final AsyncCache<String, Long> idByEmail;
+    private final Timer byIdLoads;
+    private final Timer byEmailLoads;
+
+    public UserCache(UserRepository userRepository,
+                     MeterRegistry registry,
+                     @Value("${app.user-cache.max-size:10000}") long maxSize,
+                     @Value("${app.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size ...
+        CaffeineCacheMetrics.monitor(registry, byId, "users.byId");
+        CaffeineCacheMetrics.monitor(registry, idByEmail, "users.byEmail");
+        // the Caffeine binder only times loads of synchronous LoadingCaches
+        this.byIdLoads = loadTimer(registry, "users.byId");
+        this.byEmailLoads = loadTimer(registry, "users.byEmail");
+    }
+
+    public Mono<UserResponseDto> getById(Long userId) {
+        return Mono.fromFuture(() -> byId.get(userId, (id, executor) ->
+                timed(userRepository.findProjectedByUserId(id).map(UserMapper::toResponse), byIdLoads)), true);
+    }
+
+    /**
+     * Cached users for the given ids; all misses are loaded together in one query.
+     * Ids without a user are simply absent from the result.
+     */
+    public Mono<Map<Long, UserResponseDto>> getAllById(Collection<Long> userIds) {
+        return Mono.fromFuture(() -> byId.getAll(userIds, (ids, executor) ->
+                timed(userRepository.findProjectedByUserIdAny(ids.toArray(new Long[0]))
+                        .map(UserMapper::toResponse)
+                        .collectMap(UserResponseDto::getUserId), byIdLoads)), true);
+    }
+
+    /**
+     * Emails are unique across tenants, so the email alone finds the user; a non-null
+     * organization only has to match it.
+     */
+    public Mono<UserResponseDto> getByEmail(String organization, String email) {
+        String key = UserMapper.normalizeEmail(email);
+        return lookupByEmail(key)
+                .switchIfEmpty(Mono.defer(() -> {
+                    // the cached mapping may point at a user whose email has since changed
+                    idByEmail.synchronous().invalidate(key);
+                    return lookupByEmail(key);
+                }))
+                .filter(user -> organization == null || TenantKey.of(organization) == TenantKey.of(user.getOrganization()));
+    }
+
+    private Mono<UserResponseDto> lookupByEmail(String email) {
+        return Mono.fromFuture(() -> idByEmail.get(email, (k, executor) ->
+                        timed(userRepository.findUserIdByEmail(k), byEmailLoads)), true)
+                .flatMap(this::getById)
+                .filter(user -> email.equalsIgnoreCase(user.getEmail()));
+    }
+
+    private static <T> CompletableFuture<T> timed(Mono<T> load, Timer timer) {
+        long start = System.nanoTime();
+        return load.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                .toFuture();
+    }
+
+    private static Timer loadTimer(MeterRegistry registry, String cache) {
+        return Timer.builder("user.cache.load")
+                .tag("cache", cache)
+                .description("Time to load a cache miss from Postgres")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void invalidate(Long userId) {
+        byId.synchronous().invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        byId.synchronous().invalidateAll();
+        idByEmail.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,141 @@
+package com.user_service.user_service.cache;
+
+import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.mapper.UserMapper;
+import com.user_service.user_service.repository.UserRepository;
+import com.user_service.user_service.search.EmailSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Cross-replica invalidation: the user_account trigger (schema.sql) sends NOTIFY with the
+ * changed user_id, and every replica LISTENs on a dedicated connection outside the pool.
+ * Notified ids are dropped from UserCache and re-synced into the EmailSearchIndex in small batches.
+ * Inserts are notified too, so users created elsewhere show up in the search index.
+ * After a (re)connect the whole cache is cleared and the search index re-scanned, since
+ * notifications may have been missed.
+ */
+@Slf4j
+@Component
+public class UserChangeListener {
+
+    static final String CHANNEL = "user_account_changed";
+
+    private final ConnectionFactory connectionFactory;
+    private final UserCache userCache;
+    private final EmailSearchIndex emailSearchIndex;
+    private final UserRepository userRepository;
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final Counter notifications;
+
+    private Disposable subscription;
+
+    public UserChangeListener(R2dbcProperties properties,
+                              UserCache userCache,
+                              EmailSearchIndex emailSearchIndex,
+                              UserRepository userRepository,
+                              MeterRegistry registry) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+                .build();
+        this.connectionFactory = ConnectionFactories.get(options);
+        this.userCache = userCache;
+        this.emailSearchIndex = emailSearchIndex;
+        this.userRepository = userRepository;
+
+        this.notifications = Counter.builder("user.cache.notifications")
+                .description("user_account change notifications received")
+                .register(registry);
+        Gauge.builder("user.cache.listener.connected", connected, c -> c.get() ? 1 : 0)
+                .description("1 while LISTENing for user_account changes")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.usingWhen(connectionFactory.create(), this::listen, Connection::close)
+                .bufferTimeout(256, Duration.ofMillis(100))
+                .concatMap(this::apply)
+                .doOnError(e -> {
+                    connected.set(false);
+                    log.warn("UserChangeListener: connection lost, reconnecting: {}", e.getMessage());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .doOnComplete(() -> connected.set(false))
+                .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Flux<Long> listen(Connection connection) {
+        PostgresqlConnection pg = (PostgresqlConnection) connection;
+        return pg.createStatement("LISTEN " + CHANNEL).execute()
+                .flatMap(result -> result.getRowsUpdated())
+                .then(Mono.fromRunnable(() -> {
+                    connected.set(true);
+                    userCache.invalidateAll();
+                    emailSearchIndex.build();
+                    log.info("UserChangeListener: listening on {}", CHANNEL);
+                }))
+                .thenMany(pg.getNotifications())
+                .mapNotNull(notification -> parseUserId(notification.getParameter()));
+    }
+
+    private Mono<Void> apply(List<Long> changed) {
+        Set<Long> ids = Set.copyOf(changed);
+        notifications.increment(changed.size());
+        ids.forEach(userCache::invalidate);
+
+        return userRepository.findProjectedByUserIdIn(ids)
+                .map(UserMapper::toResponse)
+                .doOnNext(emailSearchIndex::put)
+                .map(UserResponseDto::getUserId)
+                .collect(Collectors.toSet())
+                .doOnNext(present -> ids.stream()
+                        .filter(id -> !present.contains(id))
+                        .forEach(emailSearchIndex::remove))
+                .onErrorResume(e -> {
+                    log.warn("UserChangeListener: failed to refresh search index for {}: {}", ids, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private static Long parseUserId(String payload) {
+        try {
+            return Long.valueOf(payload);
+        } catch (NumberFormatException e) {
+            log.warn("UserChangeListener: ignoring notification payload '{}'", payload);
+            return null;
+        }
+    }
+}
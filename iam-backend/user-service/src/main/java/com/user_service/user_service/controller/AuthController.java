@@ -0,0 +1,34 @@
+package com.user_service.user_service.controller;
+
+import com.user_service.user_service.dto.LoginRequestDto;
+import com.user_service.user_service.dto.LoginResponseDto;
+import com.user_service.user_service.service.AuthService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * POST /api/auth/login
+     * Verifies organization + email + password. 200 with the user on success,
+     * 401 on bad credentials, 403 for suspended / locked accounts, 503 when the
+     * password pool is saturated (retry).
+     */
+    @PostMapping("/login")
+    public Mono<LoginResponseDto> login(@Valid @RequestBody LoginRequestDto req) {
+        log.debug("Login attempt: organization={} email={}", req.getOrganization(), req.getEmail());
+        return authService.login(req);
+    }
+}
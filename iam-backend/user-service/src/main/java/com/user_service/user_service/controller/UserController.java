@@ -1,20 +1,38 @@
 package com.user_service.user_service.controller;
 
+import com.user_service.user_service.dto.BatchRequestDto;
+import com.user_service.user_service.dto.BatchResponseDto;
+import com.user_service.user_service.dto.CursorPageResponse;
 import com.user_service.user_service.dto.PageResponse;
+import com.user_service.user_service.dto.UserImportEvent;
+import com.user_service.user_service.dto.UserPatchDto;
+import com.user_service.user_service.service.UserImportService;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.user_service.user_service.dto.UserRequestDto;
 import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.enums.CountMode;
+import com.user_service.user_service.enums.UserStatus;
 import com.user_service.user_service.service.UserService;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 @Slf4j
 @RestController
@@ -23,6 +41,8 @@ public class UserController {
 
     @Autowired
     private UserService userService;
+    @Autowired
+    private UserImportService userImportService;
 
     /**
      * POST /api/users
@@ -39,18 +59,78 @@ public class UserController {
                 });
     }
 
+    /**
+     * POST /api/users/import  (Content-Type: application/x-ndjson or text/csv)
+     * Bulk import. The upload is read line by line and written in batches; the response
+     * streams per-row errors, per-batch progress and a final summary as NDJSON.
+     * CSV needs a header row with DTO field names (firstName,lastName,email,organization,...).
+     */
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserImportEvent> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                             InputStream body) {
+        boolean csv = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        log.info("Received user import request: format={}", csv ? "csv" : "ndjson");
+
+        // blocking reads, pulled on demand from a worker thread
+        Flux<String> lines = Flux.using(
+                        () -> new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+                        reader -> Flux.fromStream(reader.lines()),
+                        reader -> {
+                            try {
+                                reader.close();
+                            } catch (IOException e) {
+                                log.debug("Failed to close import stream", e);
+                            }
+                        })
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return userImportService.importUsers(lines, csv);
+    }
+
     @GetMapping("/getUserById/{id}")
     public Mono<ResponseEntity<UserResponseDto>> getById(@PathVariable Long id) {
         return userService.getUserById(id)
                 .map(ResponseEntity::ok);
     }
 
+    /**
+     * POST /api/users/batch  {"ids": [1, 2, 3]}
+     * Many users in one request; ids without a user come back in missing.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<BatchResponseDto<UserResponseDto>>> getByIds(@Valid @RequestBody BatchRequestDto req) {
+        return userService.getUsersByIds(req.getIds())
+                .map(ResponseEntity::ok);
+    }
+
+    // Exact (case-insensitive) email lookup, optionally checked against an organization; served from the user cache
+    @GetMapping("/byEmail")
+    public Mono<ResponseEntity<UserResponseDto>> getByEmail(@RequestParam(value = "organization", required = false) String organization,
+                                                            @RequestParam("email") @NotBlank String email) {
+        return userService.getUserByEmail(organization, email)
+                .map(ResponseEntity::ok);
+    }
+
     @GetMapping("getAllUsers")
     public Flux<UserResponseDto> getAllUser() {
         return userService.getAllUsers();
     }
 
 
+    /**
+     * GET /api/users/export?organization=&status=
+     * Streams users as NDJSON in user_id order; nothing is collected in memory,
+     * the database cursor advances as the client reads.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserResponseDto> export(@RequestParam(required = false) String organization,
+                                        @RequestParam(required = false) UserStatus status) {
+        log.info("Exporting users: organization='{}', status={}", organization, status);
+        return userService.exportUsers(organization, status);
+    }
+
     @PutMapping("/updateUser/{id}")
     public Mono<ResponseEntity<UserResponseDto>> update(
             @PathVariable("id") Long id,
@@ -61,6 +141,19 @@ public class UserController {
                 .defaultIfEmpty(ResponseEntity.notFound().build());
     }
 
+    /**
+     * PATCH /api/users/{id}
+     * Partial update; body carries only the fields to change plus the version last read.
+     * 409 when the version is stale, 404 when the user does not exist.
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<UserResponseDto>> patch(@PathVariable("id") Long id,
+                                                       @Valid @RequestBody UserPatchDto req) {
+        log.debug("Patch user id={} version={}", id, req.getVersion());
+        return userService.patchUser(id, req)
+                .map(ResponseEntity::ok);
+    }
+
     @DeleteMapping("/deleteById/{id}")
     public Mono<ResponseEntity<Void>> delete(@PathVariable Long id) {
         return userService.deleteUser(id)
@@ -69,18 +162,19 @@ public class UserController {
 
 
     /**
-     * GET /api/users/searchByEmail?q=<text>
-     * Search users by email (case-insensitive, contains).
+     * GET /api/users/searchByEmail?q=<text>&limit=50
+     * Search users by email (case-insensitive, contains), at most limit results.
      */
     @GetMapping("/searchByEmail")
-    public Flux<UserResponseDto> searchByEmail(@RequestParam("q") @NotBlank String q) {
+    public Flux<UserResponseDto> searchByEmail(@RequestParam("q") @NotBlank String q,
+                                               @RequestParam(defaultValue = "50") int limit) {
         String query = q.trim();
         log.info("Searching users by email: q='{}'", query);
         if (query.isEmpty()) {
             // Return empty Flux when query is blank to avoid scanning the whole table.
             return Flux.empty();
         }
-        return userService.searchByEmail(query);
+        return userService.searchByEmail(query, limit);
     }
 
     @GetMapping
@@ -88,11 +182,37 @@ public class UserController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
             @RequestParam(defaultValue = "userId") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "exact") String count
     ) {
         // map sortBy from DTO property to DB column if needed (e.g. userId -> user_id)
         String dbSortBy = mapSortBy(sortBy);
-        return userService.getUsers(page, size, dbSortBy, sortDir);
+        return userService.getUsers(page, size, dbSortBy, sortDir, countMode(count));
+    }
+
+    // count=exact|estimated|none - see CountMode
+    private static CountMode countMode(String count) {
+        try {
+            return CountMode.from(count);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/users?cursor=&size=20&sortBy=createdAt&sortDir=desc
+     * Keyset pagination: send an empty cursor for the first page, then nextCursor / prevCursor.
+     * Page latency does not depend on depth. withTotal=true adds a full COUNT(*).
+     */
+    @GetMapping(params = "cursor")
+    public Mono<CursorPageResponse<UserResponseDto>> getAllByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "userId") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        return userService.getUsersByCursor(cursor, size, mapSortBy(sortBy), sortDir, withTotal);
     }
 
     private String mapSortBy(String sortBy) {
@@ -100,6 +220,7 @@ public class UserController {
         return switch (sortBy) {
             case "userId" -> "user_id";
             case "firstName" -> "first_name";
+            case "lastName" -> "last_name";
             case "createdAt" -> "created_at";
             default -> sortBy; // assume it's a valid column name
         };
@@ -115,10 +236,10 @@ public class UserController {
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "10") int size,
             @RequestParam(name = "sortBy", defaultValue = "userId") String sortBy,
-            @RequestParam(name = "sortDir", defaultValue = "asc") String sortDir
-
+            @RequestParam(name = "sortDir", defaultValue = "asc") String sortDir,
+            @RequestParam(name = "count", defaultValue = "exact") String count
     ) {
-        return userService.searchByOrganization(organization, page, size, sortBy, sortDir);
+        return userService.searchByOrganization(organization, page, size, sortBy, sortDir, countMode(count));
     }
 
 
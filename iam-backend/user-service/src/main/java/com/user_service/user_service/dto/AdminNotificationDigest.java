@@ -0,0 +1,25 @@
+package com.user_service.user_service.dto;
+
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batch of admin notifications published as one STOMP message.
+ * dropped = notifications discarded since the previous digest because the buffer was full.
+ */
+@Data
+@Builder
+public class AdminNotificationDigest {
+    private int count;
+    private long dropped;
+    private List<AdminNotification> notifications;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDateTime from;   // time of the oldest notification in this digest
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDateTime to;     // time of the newest notification in this digest
+}
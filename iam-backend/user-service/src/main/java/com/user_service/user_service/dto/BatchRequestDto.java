@@ -0,0 +1,12 @@
+package com.user_service.user_service.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchRequestDto {
+    @NotNull
+    private List<Long> ids;
+}
@@ -0,0 +1,17 @@
+package com.user_service.user_service.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) listing.
+ * Cursors are opaque; pass nextCursor / prevCursor back as the cursor param.
+ * totalElements is only filled when explicitly requested.
+ */
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        String prevCursor,
+        Long totalElements
+) {
+}
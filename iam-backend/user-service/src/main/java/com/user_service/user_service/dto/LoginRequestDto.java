@@ -0,0 +1,20 @@
+package com.user_service.user_service.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class LoginRequestDto {
+
+    // part of the credentials: scopes the lookup to the tenant's partition
+    @NotBlank(message = "Organization is required")
+    private String organization;
+
+    @Email(message = "Invalid email format")
+    @NotBlank(message = "Email is required")
+    private String email;
+
+    @NotBlank(message = "Password is required")
+    private String password;
+}
@@ -0,0 +1,14 @@
+package com.user_service.user_service.dto;
+
+import com.user_service.user_service.enums.UserStatus;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LoginResponseDto {
+    private Long userId;
+    private String email;
+    private String organization;
+    private UserStatus status;
+}
@@ -1,12 +1,25 @@
 package com.user_service.user_service.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+/**
+ * totalElements / totalPages are omitted when the count was skipped (count=none);
+ * with count=estimated they are approximate. hasNext is always exact.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PageResponse<T>(
         List<T> content,
         int page,
         int size,
-        long totalElements,
-        int totalPages
+        Long totalElements,
+        Integer totalPages,
+        boolean hasNext
 ) {
+
+    public static <T> PageResponse<T> of(List<T> content, int page, int size, Long totalElements, boolean hasNext) {
+        Integer totalPages = totalElements == null ? null : (int) ((totalElements + size - 1) / size);
+        return new PageResponse<>(content, page, size, totalElements, totalPages, hasNext);
+    }
 }
@@ -0,0 +1,24 @@
+package com.user_service.user_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * One line of the NDJSON stream returned by POST /api/users/import.
+ * type = "error"    -> a single input row was rejected (line, email, message)
+ * type = "progress" -> emitted after every batch (running totals)
+ * type = "summary"  -> final totals, last element of the stream
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportEvent {
+    private String type;
+    private Long line;
+    private String email;
+    private String message;
+    private Long processed;
+    private Long inserted;
+    private Long failed;
+}
@@ -0,0 +1,32 @@
+package com.user_service.user_service.dto;
+
+import com.user_service.user_service.enums.UserStatus;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Partial update: null fields are left unchanged.
+ * version must be the value last read; a stale version is rejected with 409.
+ */
+@Data
+@Builder
+public class UserPatchDto {
+    private String firstName;
+    private String middleName;
+    private String lastName;
+
+    @Email(message = "Invalid email format")
+    private String email;
+
+    private String organization;
+    private String groupName;
+    private String role;
+    private UserStatus status;
+    private String contactNo;
+    private String password;
+
+    @NotNull(message = "Version is required")
+    private Long version;
+}
@@ -24,10 +24,11 @@ public class UserResponseDto {
     private String contactNo;
     private LocalDateTime lastLogin;
     private UserStatus status;
-    private String password;
 
     private LocalDateTime createdAt;
 
 
     private LocalDateTime updatedAt;
+
+    private Long version;
 }
@@ -1,6 +1,7 @@
 package com.user_service.user_service.entity;
 import com.user_service.user_service.enums.UserStatus;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 import lombok.*;
 
@@ -15,6 +16,8 @@ import java.time.LocalDateTime;
 public class User {
 	@Id
 	private Long userId;
+	// partition key of user_account, always TenantKey.of(organization)
+	private Long tenantId;
 	private String organization;
 	private String groupName;
 	private String role;
@@ -28,4 +31,6 @@ public class User {
 	private UserStatus status;
 	private LocalDateTime createdAt;
 	private LocalDateTime updatedAt;
+	@Version
+	private Long version;
 }
\ No newline at end of file
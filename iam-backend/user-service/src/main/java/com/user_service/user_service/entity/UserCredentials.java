@@ -0,0 +1,15 @@
+package com.user_service.user_service.entity;
+
+import com.user_service.user_service.enums.UserStatus;
+
+/**
+ * Login-path projection of {@code user_account}: just what credential
+ * verification needs, plus the keys to write last_login / a rehash back.
+ */
+public interface UserCredentials {
+    Long getTenantId();
+    Long getUserId();
+    String getEmail();
+    String getPassword();
+    UserStatus getStatus();
+}
@@ -0,0 +1,27 @@
+package com.user_service.user_service.entity;
+
+import com.user_service.user_service.enums.UserStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-side projection of {@code user_account}.
+ * Closed projection, so Spring Data only selects these columns -
+ * the password hash is never read on list / search / get paths.
+ */
+public interface UserView {
+    Long getUserId();
+    String getOrganization();
+    String getGroupName();
+    String getRole();
+    String getEmail();
+    String getContactNo();
+    String getFirstName();
+    String getMiddleName();
+    String getLastName();
+    LocalDateTime getLastLogin();
+    UserStatus getStatus();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    Long getVersion();
+}
@@ -2,12 +2,19 @@
 package com.user_service.user_service.jobs;
 
 import com.user_service.user_service.dto.AdminNotification;
-import com.user_service.user_service.entity.User;
-import com.user_service.user_service.enums.UserStatus;
+import com.user_service.user_service.entity.UserView;
+import com.user_service.user_service.mapper.UserMapper;
 import com.user_service.user_service.notification.AdminNotifier;
 import com.user_service.user_service.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.user_service.user_service.search.EmailSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -15,52 +22,134 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @Component
 @EnableScheduling
-@RequiredArgsConstructor
 public class InactiveUserScheduler {
 
+    // pg advisory lock key shared by all user-service replicas ("INACTIVE" in ASCII)
+    private static final long LOCK_KEY = 0x494E_4143_5449_5645L;
+
     private final UserRepository userRepository;
     private final AdminNotifier adminNotifier;
+    private final EmailSearchIndex emailSearchIndex;
+    private final DatabaseClient databaseClient;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Timer runTimer;
+    private final DistributionSummary rowsSummary;
+    private final Counter overlapSkips;
+    private final Counter lockSkips;
+
+    public InactiveUserScheduler(UserRepository userRepository,
+                                 AdminNotifier adminNotifier,
+                                 EmailSearchIndex emailSearchIndex,
+                                 DatabaseClient databaseClient,
+                                 MeterRegistry registry,
+                                 @Value("${app.scheduler.inactive.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.adminNotifier = adminNotifier;
+        this.emailSearchIndex = emailSearchIndex;
+        this.databaseClient = databaseClient;
+        this.chunkSize = chunkSize;
+
+        this.runTimer = Timer.builder("user.inactive_scheduler.run")
+                .description("Duration of one inactive-user sweep")
+                .register(registry);
+        this.rowsSummary = DistributionSummary.builder("user.inactive_scheduler.rows")
+                .description("Users inactivated per sweep")
+                .register(registry);
+        this.overlapSkips = Counter.builder("user.inactive_scheduler.skipped")
+                .tag("reason", "overlap")
+                .description("Sweeps skipped because the previous one was still running")
+                .register(registry);
+        this.lockSkips = Counter.builder("user.inactive_scheduler.skipped")
+                .tag("reason", "locked")
+                .description("Sweeps skipped because another replica holds the lock")
+                .register(registry);
+    }
 
     /**
      * Runs every hour. Adjust as needed: "0 0 * * * *" for hourly at minute 0.
      * Cron format: second minute hour day month dayOfWeek
+     *
+     * Each sweep inactivates stale users in chunks of app.scheduler.inactive.chunk-size
+     * (one UPDATE ... RETURNING per chunk). A local flag stops overlapping sweeps and a
+     * Postgres advisory lock makes sure only one replica sweeps at a time. The rows each
+     * chunk returns go straight into the EmailSearchIndex, so typeahead shows the new status.
      */
 
     @Scheduled(cron = "0 * * * * *") // every minute for testing
     public void markInactiveAndNotify() {
+        if (!running.compareAndSet(false, true)) {
+            overlapSkips.increment();
+            log.warn("InactiveUserScheduler: previous run still in progress, skipping");
+            return;
+        }
         log.info("InactiveUserScheduler started");
+        long start = System.nanoTime();
 
-        userRepository.findUsersInactiveByLoginThreshold()
-                .flatMap(user ->
-                        userRepository.markInactiveIfActive(user.getUserId())
-                                .map(updatedUserId -> new Object[]{user, updatedUserId})
-                )
-                .flatMap(result -> {
-                    User user = (User) result[0];
-                    Long updatedId = (Long) result[1];
-                    log.info("Scheduler update result: userId={}, updatedId={}", user.getUserId(), updatedId);
-
-                    if (updatedId != null) {
-                        AdminNotification n = AdminNotification.builder()
-                                .type("USER_INACTIVATED")
-                                .userId(user.getUserId())
-                                .email(user.getEmail())
-                                .reason("Last login > 5 days")
-                                .at(LocalDateTime.now())
-                                .build();
-                        adminNotifier.send(n);
-                        log.info("User {} marked INACTIVE and notified", user.getEmail());
-                    } else {
-                        log.warn("User {} update returned null updatedId; notification skipped", user.getEmail());
-                    }
-                    return Mono.empty();
+        databaseClient.inConnection(this::sweepWhileLocked)
+                .doOnNext(rows -> {
+                    runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    rowsSummary.record(rows);
+                    log.info("InactiveUserScheduler finished: {} users marked INACTIVE", rows);
                 })
                 .doOnError(e -> log.error("Error in InactiveUserScheduler", e))
+                .doFinally(signal -> running.set(false))
                 .subscribe();
     }
 
+    // The lock is held by this connection; the chunk UPDATEs may run on any pooled connection.
+    private Mono<Long> sweepWhileLocked(Connection lockConnection) {
+        return advisoryLock(lockConnection, "SELECT pg_try_advisory_lock($1)")
+                .flatMap(locked -> {
+                    if (!locked) {
+                        lockSkips.increment();
+                        log.info("InactiveUserScheduler: another replica is running, skipping");
+                        return Mono.empty();
+                    }
+                    Mono<Boolean> unlock = advisoryLock(lockConnection, "SELECT pg_advisory_unlock($1)");
+                    return Mono.usingWhen(Mono.just(lockConnection),
+                            c -> inactivateInChunks()
+                                    .doOnNext(user -> emailSearchIndex.put(UserMapper.toResponse(user)))
+                                    .doOnNext(this::notifyAdmin)
+                                    .count(),
+                            c -> unlock,
+                            (c, e) -> unlock,
+                            c -> unlock);
+                });
+    }
+
+    private Flux<UserView> inactivateInChunks() {
+        return userRepository.markInactiveChunk(chunkSize)
+                .collectList()
+                .expand(chunk -> chunk.size() < chunkSize
+                        ? Mono.empty()
+                        : userRepository.markInactiveChunk(chunkSize).collectList())
+                .flatMapIterable((List<UserView> chunk) -> chunk);
+    }
+
+    private void notifyAdmin(UserView user) {
+        AdminNotification n = AdminNotification.builder()
+                .type("USER_INACTIVATED")
+                .userId(user.getUserId())
+                .email(user.getEmail())
+                .reason("Last login > 5 days")
+                .at(LocalDateTime.now())
+                .build();
+        adminNotifier.send(n);
+    }
+
+    private static Mono<Boolean> advisoryLock(Connection connection, String sql) {
+        return Mono.from(connection.createStatement(sql).bind("$1", LOCK_KEY).execute())
+                .flatMap(result -> Mono.from(result.map((row, meta) -> row.get(0, Boolean.class))));
+    }
+
 }
@@ -1,27 +1,38 @@
 package com.user_service.user_service.mapper;
 
 
+import com.user_service.user_service.dto.UserPatchDto;
 import com.user_service.user_service.dto.UserRequestDto;
 import com.user_service.user_service.dto.UserResponseDto;
 import com.user_service.user_service.entity.User;
+import com.user_service.user_service.entity.UserView;
 import com.user_service.user_service.enums.UserStatus;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.user_service.user_service.util.TenantKey;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
 public class UserMapper {
 
-    private static final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    // Emails are stored trimmed and lower-cased; user_email (schema.sql) keeps them unique across tenants
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 
-    public static User toEntity(UserRequestDto dto) {
+    // passwordHash is produced by PasswordHasher, never hashed here
+    public static User toEntity(UserRequestDto dto, String passwordHash) {
         return User.builder()
                 .firstName(dto.getFirstName())
                 .middleName(dto.getMiddleName())
                 .lastName(dto.getLastName())
-                .email(dto.getEmail())
+                .email(normalizeEmail(dto.getEmail()))
+                .tenantId(TenantKey.of(dto.getOrganization()))
                 .organization(dto.getOrganization())
                 .groupName(dto.getGroupName())
                 .role(dto.getRole())
                 .contactNo(dto.getContactNo())
-                .password(passwordEncoder.encode(dto.getPassword()))
+                .password(passwordHash)
                 .status(UserStatus.ACTIVE)
                 .build();
     }
@@ -30,15 +41,34 @@ public class UserMapper {
         if (dto.getFirstName() != null) entity.setFirstName(dto.getFirstName());
         if (dto.getMiddleName() != null) entity.setMiddleName(dto.getMiddleName());
         if (dto.getLastName() != null) entity.setLastName(dto.getLastName());
-        if (dto.getEmail() != null) entity.setEmail(dto.getEmail());
-        if (dto.getOrganization() != null) entity.setOrganization(dto.getOrganization());
+        if (dto.getEmail() != null) entity.setEmail(normalizeEmail(dto.getEmail()));
+        if (dto.getOrganization() != null) {
+            // a new organization moves the row to that tenant's partition
+            entity.setOrganization(dto.getOrganization());
+            entity.setTenantId(TenantKey.of(dto.getOrganization()));
+        }
         if (dto.getGroupName() != null) entity.setGroupName(dto.getGroupName());
         if (dto.getRole() != null) entity.setRole(dto.getRole());
         if (dto.getContactNo() != null) entity.setContactNo(dto.getContactNo());
         if (dto.getStatus() != null) entity.setStatus(dto.getStatus());
-        if (dto.getPassword() != null && !dto.getPassword().isBlank()) {
-            entity.setPassword(passwordEncoder.encode(dto.getPassword()));
+    }
+
+    // Column -> new value for the fields present in a PATCH; the password is hashed by the caller
+    public static Map<String, Object> toChanges(UserPatchDto dto) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (dto.getFirstName() != null) changes.put("first_name", dto.getFirstName());
+        if (dto.getMiddleName() != null) changes.put("middle_name", dto.getMiddleName());
+        if (dto.getLastName() != null) changes.put("last_name", dto.getLastName());
+        if (dto.getEmail() != null) changes.put("email", normalizeEmail(dto.getEmail()));
+        if (dto.getOrganization() != null) {
+            changes.put("organization", dto.getOrganization());
+            changes.put("tenant_id", TenantKey.of(dto.getOrganization()));
         }
+        if (dto.getGroupName() != null) changes.put("group_name", dto.getGroupName());
+        if (dto.getRole() != null) changes.put("role", dto.getRole());
+        if (dto.getContactNo() != null) changes.put("contact_no", dto.getContactNo());
+        if (dto.getStatus() != null) changes.put("status", dto.getStatus().name());
+        return changes;
     }
 
     public static UserResponseDto toResponse(User entity) {
@@ -51,12 +81,32 @@ public class UserMapper {
                 .organization(entity.getOrganization())
                 .groupName(entity.getGroupName())
                 .role(entity.getRole())
-                .password(passwordEncoder.encode(entity.getPassword()))
                 .contactNo(entity.getContactNo())
                 .lastLogin(entity.getLastLogin())
                 .status(entity.getStatus())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(entity.getVersion())
+                .build();
+    }
+
+    // Read-path mapping: no password is selected, nothing to hash
+    public static UserResponseDto toResponse(UserView view) {
+        return UserResponseDto.builder()
+                .userId(view.getUserId())
+                .firstName(view.getFirstName())
+                .middleName(view.getMiddleName())
+                .lastName(view.getLastName())
+                .email(view.getEmail())
+                .organization(view.getOrganization())
+                .groupName(view.getGroupName())
+                .role(view.getRole())
+                .contactNo(view.getContactNo())
+                .lastLogin(view.getLastLogin())
+                .status(view.getStatus())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .version(view.getVersion())
                 .build();
     }
 }
\ No newline at end of file
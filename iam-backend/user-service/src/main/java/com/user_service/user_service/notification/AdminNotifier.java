@@ -2,25 +2,119 @@ package com.user_service.user_service.notification;
 
 
 import com.user_service.user_service.dto.AdminNotification;
-import lombok.RequiredArgsConstructor;
+import com.user_service.user_service.dto.AdminNotificationDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces admin notifications into digests.
+ * send() only enqueues into a bounded buffer (app.notifications.buffer-size) and never blocks;
+ * when the buffer is full the notification is dropped and counted. A digest is published to
+ * /topic/admin/notifications every app.notifications.window-ms or every
+ * app.notifications.max-batch notifications, whichever comes first.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class AdminNotifier {
+
+    static final String DESTINATION = "/topic/admin/notifications";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final Duration window;
+    private final int maxBatch;
+    private final Sinks.Many<AdminNotification> sink;
+    private final AtomicLong droppedSinceLastDigest = new AtomicLong();
 
-    public void send(AdminNotification notification) {
+    private final Counter sentCounter;
+    private final Counter digestCounter;
+    private final Counter droppedCounter;
+    private final DistributionSummary batchSize;
+
+    public AdminNotifier(SimpMessagingTemplate messagingTemplate,
+                         MeterRegistry registry,
+                         @Value("${app.notifications.window-ms:2000}") long windowMs,
+                         @Value("${app.notifications.max-batch:500}") int maxBatch,
+                         @Value("${app.notifications.buffer-size:10000}") int bufferSize) {
+        this.messagingTemplate = messagingTemplate;
+        this.window = Duration.ofMillis(windowMs);
+        this.maxBatch = maxBatch;
+        this.sink = Sinks.many().unicast()
+                .onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize));
+
+        this.sentCounter = Counter.builder("user.admin_notifications.sent")
+                .description("Notifications published to admins")
+                .register(registry);
+        this.digestCounter = Counter.builder("user.admin_notifications.digests")
+                .description("Digest messages published to admins")
+                .register(registry);
+        this.droppedCounter = Counter.builder("user.admin_notifications.dropped")
+                .description("Notifications dropped because the buffer was full")
+                .register(registry);
+        this.batchSize = DistributionSummary.builder("user.admin_notifications.batch.size")
+                .description("Notifications per digest")
+                .register(registry);
+    }
 
+    @PostConstruct
+    void start() {
+        sink.asFlux()
+                .bufferTimeout(maxBatch, window)
+                .subscribe(this::publish, e -> log.error("AdminNotifier: digest pipeline failed", e));
+    }
 
+    // Completing the sink flushes whatever is still buffered
+    @PreDestroy
+    void stop() {
+        synchronized (sink) {
+            sink.tryEmitComplete();
+        }
+    }
 
-        log.info("AdminNotifier: sending {}", notification);
-        messagingTemplate.convertAndSend("/topic/admin/notifications", notification);
-        log.info("AdminNotifier: sent to /topic/admin/notifications");
+    public void send(AdminNotification notification) {
+        Sinks.EmitResult result;
+        // the sink needs serialized emission; callers may come from several threads
+        synchronized (sink) {
+            result = sink.tryEmitNext(notification);
+        }
+        if (result.isFailure()) {
+            droppedCounter.increment();
+            droppedSinceLastDigest.incrementAndGet();
+            log.debug("AdminNotifier: dropped {} ({})", notification, result);
+        }
+    }
 
+    private void publish(List<AdminNotification> batch) {
+        AdminNotificationDigest digest = AdminNotificationDigest.builder()
+                .count(batch.size())
+                .dropped(droppedSinceLastDigest.getAndSet(0))
+                .notifications(batch)
+                .from(batch.get(0).getAt())
+                .to(batch.get(batch.size() - 1).getAt())
+                .build();
+        try {
+            messagingTemplate.convertAndSend(DESTINATION, digest);
+            digestCounter.increment();
+            sentCounter.increment(batch.size());
+            batchSize.record(batch.size());
+            log.info("AdminNotifier: sent digest of {} notifications ({} dropped) to {}",
+                    digest.getCount(), digest.getDropped(), DESTINATION);
+        } catch (RuntimeException e) {
+            // keep the pipeline alive; the batch is lost
+            droppedCounter.increment(batch.size());
+            log.error("AdminNotifier: failed to send digest of {} notifications", batch.size(), e);
+        }
     }
 }
-
@@ -1,44 +1,100 @@
 package com.user_service.user_service.repository;
 
 import com.user_service.user_service.entity.User;
+import com.user_service.user_service.entity.UserCredentials;
+import com.user_service.user_service.entity.UserView;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 import org.springframework.data.domain.Pageable;
 
 
 public interface UserRepository extends ReactiveCrudRepository<User, Long> {
-    Mono<User> findByEmail(String email);
-    Mono<Boolean> existsByEmail(String email);
+
+    // Columns backing UserView - everything except password
+    String VIEW_COLUMNS = "user_id, organization, group_name, role, email, contact_no, first_name, "
+            + "middle_name, last_name, last_login, status, created_at, updated_at, version";
+
+    // Rows of one organization; binds :tenantId and :organization
+    String TENANT_PREDICATE = "tenant_id = :tenantId AND lower(btrim(organization, ' ') COLLATE \"C\") = :organization";
+
     Flux<User> findAllBy(Pageable pageable);
     Mono<Long> count();
 
+    // Read-side projections (no password column)
+    Mono<UserView> findProjectedByUserId(Long userId);
+
+    Flux<UserView> findAllProjectedBy();
+
+    Flux<UserView> findProjectedByUserIdIn(Collection<Long> userIds);
+
+    // Batch lookup; one array parameter, so the statement text does not vary with the batch size
+    @Query("SELECT " + VIEW_COLUMNS + " FROM user_account WHERE user_id = ANY(:userIds)")
+    Flux<UserView> findProjectedByUserIdAny(Long[] userIds);
+
+    /*
+     * Tenant-scoped queries bind tenantId = TenantKey.of(organization) and
+     * organization = TenantKey.normalize(organization): the tenant_id predicate prunes
+     * user_account down to one partition, the organization predicate (normalized like
+     * tenant_key) makes a key collision harmless.
+     */
+
+    // Emails are unique across tenants: one primary-key probe on user_email, no partition fan-out
+    @Query("SELECT user_id FROM user_email WHERE email = LOWER(:email)")
+    Mono<Long> findUserIdByEmail(String email);
+
+    Flux<UserView> findAllProjectedByOrderByUserIdAsc();
+
     // Case-insensitive "contains"
-    Flux<User> findByEmailContainingIgnoreCase(String emailFragment);
+    Flux<UserView> findByEmailContainingIgnoreCase(String emailFragment);
 
     // Postgres (ILIKE) — best for Postgres
 //    @Query("SELECT * FROM users WHERE organization ILIKE '%' || :organization || '%'")
 //    Flux<User> findByOrganizationContainingIgnoreCase(String organization);
 
-    @Query("SELECT * FROM user_account WHERE LOWER(organization) = LOWER($1)")
-    Flux<User> findByOrganization(String organization);
+    // Login path: only the columns credential verification needs
+    @Query("SELECT tenant_id, user_id, email, password, status FROM user_account "
+            + "WHERE tenant_id = :tenantId AND LOWER(email) = LOWER(:email)")
+    Mono<UserCredentials> findCredentialsByEmail(long tenantId, String email);
 
+    // Organization page, sorted and paged in SQL; served by the (tenant_id, user_id) primary key
+    @Query("SELECT " + VIEW_COLUMNS + " FROM user_account WHERE " + TENANT_PREDICATE
+            + " ORDER BY user_id ASC LIMIT :limit OFFSET :offset")
+    Flux<UserView> findPageByOrganizationAsc(long tenantId, String organization, int limit, long offset);
+
+    @Query("SELECT " + VIEW_COLUMNS + " FROM user_account WHERE " + TENANT_PREDICATE
+            + " ORDER BY user_id DESC LIMIT :limit OFFSET :offset")
+    Flux<UserView> findPageByOrganizationDesc(long tenantId, String organization, int limit, long offset);
+
+    @Query("SELECT COUNT(*) FROM user_account WHERE " + TENANT_PREDICATE)
+    Mono<Long> countByOrganization(long tenantId, String organization);
 
-    @Query("""
-        SELECT * FROM user_account
-        WHERE status = 'ACTIVE' AND last_login < (NOW() - INTERVAL '5 days')
-    """)
-    Flux<User> findUsersInactiveByLoginThreshold();
 
+    /**
+     * Inactivate up to :chunkSize users whose last login is older than 5 days, in one statement.
+     * SKIP LOCKED keeps concurrent chunks from waiting on each other; returns the rows changed
+     * (all VIEW_COLUMNS, so callers can refresh in-memory copies without re-reading them).
+     */
     @Query("""
-        UPDATE user_account
-        SET status = 'INACTIVE', updated_at = NOW()
-        WHERE user_id = :userId AND status = 'ACTIVE'
-        RETURNING user_id
+        WITH stale AS (
+            SELECT user_id FROM user_account
+            WHERE status = 'ACTIVE' AND last_login < (NOW() - INTERVAL '5 days')
+            ORDER BY user_id
+            LIMIT :chunkSize
+            FOR UPDATE SKIP LOCKED
+        )
+        UPDATE user_account u
+        SET status = 'INACTIVE', updated_at = NOW(), version = u.version + 1
+        FROM stale
+        WHERE u.user_id = stale.user_id
+        RETURNING u.user_id, u.organization, u.group_name, u.role, u.email, u.contact_no, u.first_name,
+                  u.middle_name, u.last_name, u.last_login, u.status, u.created_at, u.updated_at, u.version
     """)
-    Mono<Long> markInactiveIfActive(Long userId);
+    Flux<UserView> markInactiveChunk(int chunkSize);
 
 
 
@@ -0,0 +1,338 @@
+package com.user_service.user_service.search;
+
+import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.mapper.UserMapper;
+import com.user_service.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory trigram index over normalized (trimmed, lower-cased) emails, used for
+ * the typeahead search so keystrokes never turn into LIKE '%x%' scans.
+ *
+ * Every email is padded with two sentinel chars and indexed by the trigram starting
+ * at each position, so:
+ *  - queries of 3+ chars intersect the postings of their own trigrams;
+ *  - 1-2 char queries are a prefix range over the trigram keys.
+ * Postings are sorted by userId, so results come back in userId order and the scan
+ * stops as soon as {@code limit} matches are found.
+ *
+ * Only userId and email are held: searches return ids and callers hydrate the rest
+ * from UserCache, so fields that change without a notification (last_login) are
+ * never served from here.
+ *
+ * Built at startup from user_account and kept current by UserServiceImpl on
+ * create / update / delete and by UserChangeListener for writes on other replicas.
+ * Writes are serialized on the index monitor; searches never take it. Until the
+ * build finishes, {@link #isReady()} is false and callers should fall back to the
+ * database.
+ */
+@Slf4j
+@Component
+public class EmailSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final char PAD = '\u0000';
+    private static final String PADDING = String.valueOf(PAD).repeat(GRAM - 1);
+
+    // rough per-entry costs used for the memory gauge
+    private static final long BYTES_PER_POSTING = 48;
+    private static final long BYTES_PER_GRAM = 120;
+    private static final long BYTES_PER_DOCUMENT = 96;
+
+    private final UserRepository userRepository;
+
+    // userId -> normalized email
+    private final ConcurrentHashMap<Long, String> documents = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, ConcurrentSkipListSet<Long>> postings = new ConcurrentSkipListMap<>();
+    private final AtomicLong postingCount = new AtomicLong();
+    private final AtomicLong documentChars = new AtomicLong();
+
+    private volatile boolean ready;
+    private final AtomicInteger buildRequests = new AtomicInteger();
+    // ids put / removed while a scan runs (guarded by this); the scan's rows for them are older
+    private Set<Long> writtenDuringScan;
+
+    private final Timer buildTimer;
+    private final Timer queryTimer;
+
+    public EmailSearchIndex(UserRepository userRepository, MeterRegistry registry) {
+        this.userRepository = userRepository;
+
+        Gauge.builder("user.email_index.documents", documents, Map::size)
+                .description("Users held in the email search index")
+                .register(registry);
+        Gauge.builder("user.email_index.grams", postings, Map::size)
+                .description("Distinct trigrams in the email search index")
+                .register(registry);
+        Gauge.builder("user.email_index.memory.estimated", this, EmailSearchIndex::estimatedBytes)
+                .description("Estimated heap used by the email search index")
+                .baseUnit("bytes")
+                .register(registry);
+        this.buildTimer = Timer.builder("user.email_index.build")
+                .description("Time to build the email search index from user_account")
+                .register(registry);
+        this.queryTimer = Timer.builder("user.email_index.query")
+                .description("Email typeahead lookups served from memory")
+                .register(registry);
+    }
+
+    /**
+     * Full scan of user_account. Runs at startup and again after every LISTEN (re)connect of
+     * UserChangeListener, since changes made while it was disconnected were never notified;
+     * users indexed before the scan but no longer in the table are dropped at the end.
+     * Requests arriving while a scan runs are coalesced into one more scan.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (buildRequests.getAndIncrement() == 0) {
+            scan();
+        }
+    }
+
+    private void scan() {
+        long start = System.nanoTime();
+        log.info("EmailSearchIndex: building from user_account");
+
+        Set<Long> before;
+        synchronized (this) {
+            writtenDuringScan = new HashSet<>();
+            before = new HashSet<>(documents.keySet());
+        }
+        userRepository.findAllProjectedBy()
+                .map(UserMapper::toResponse)
+                .doOnNext(user -> putScanned(user, before))
+                .count()
+                .subscribe(count -> {
+                            endScan(before);
+                            long took = System.nanoTime() - start;
+                            buildTimer.record(took, TimeUnit.NANOSECONDS);
+                            ready = true;
+                            log.info("EmailSearchIndex: indexed {} users ({} grams, {} dropped) in {} ms",
+                                    count, postings.size(), before.size(), TimeUnit.NANOSECONDS.toMillis(took));
+                            scanAgainIfRequested();
+                        },
+                        e -> {
+                            endScan(Set.of());
+                            log.error("EmailSearchIndex: build failed, searches stay on the database", e);
+                            scanAgainIfRequested();
+                        });
+    }
+
+    /*
+     * A scanned row may predate a put / remove that ran while the scan was streaming, e.g. a
+     * user deleted after the scan read it; those ids act as tombstones and keep the newer state.
+     */
+    private synchronized void putScanned(UserResponseDto user, Set<Long> before) {
+        before.remove(user.getUserId());
+        if (!writtenDuringScan.contains(user.getUserId())) {
+            index(user);
+        }
+    }
+
+    // drops users that were indexed before the scan, not seen by it and not written since
+    private synchronized void endScan(Set<Long> unseen) {
+        unseen.stream()
+                .filter(id -> !writtenDuringScan.contains(id))
+                .forEach(this::drop);
+        writtenDuringScan = null;
+    }
+
+    private void scanAgainIfRequested() {
+        if (buildRequests.decrementAndGet() > 0) {
+            buildRequests.set(1);
+            scan();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Add or replace a user. */
+    public synchronized void put(UserResponseDto user) {
+        if (user == null || user.getUserId() == null || user.getEmail() == null) {
+            return;
+        }
+        if (writtenDuringScan != null) {
+            writtenDuringScan.add(user.getUserId());
+        }
+        index(user);
+    }
+
+    public synchronized void remove(Long userId) {
+        if (writtenDuringScan != null) {
+            writtenDuringScan.add(userId);
+        }
+        drop(userId);
+    }
+
+    private void index(UserResponseDto user) {
+        Long id = user.getUserId();
+        String email = normalize(user.getEmail());
+        String previous = documents.put(id, email);
+        documentChars.addAndGet(email.length() - (previous == null ? 0 : previous.length()));
+
+        if (previous != null) {
+            if (previous.equals(email)) {
+                return; // email unchanged
+            }
+            unindex(id, previous);
+        }
+        for (String gram : grams(email)) {
+            if (postings.computeIfAbsent(gram, g -> new ConcurrentSkipListSet<>()).add(id)) {
+                postingCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void drop(Long userId) {
+        String previous = documents.remove(userId);
+        if (previous != null) {
+            documentChars.addAndGet(-previous.length());
+            unindex(userId, previous);
+        }
+    }
+
+    /**
+     * Ids of the users whose email contains {@code fragment} (case-insensitive), in
+     * userId order, at most {@code limit} of them.
+     */
+    public List<Long> search(String fragment, int limit) {
+        long start = System.nanoTime();
+        try {
+            String q = normalize(fragment);
+            if (q.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            return q.length() >= GRAM ? searchByGrams(q, limit) : searchByPrefix(q, limit);
+        } finally {
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // 3+ chars: walk the rarest trigram's postings, verify each candidate
+    private List<Long> searchByGrams(String q, int limit) {
+        Set<Long> smallest = null;
+        for (int i = 0; i + GRAM <= q.length(); i++) {
+            Set<Long> ids = postings.get(q.substring(i, i + GRAM));
+            if (ids == null) {
+                return List.of();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        List<Long> result = new ArrayList<>(Math.min(limit, 64));
+        for (Long id : smallest) {
+            String email = documents.get(id);
+            if (email != null && email.contains(q)) {
+                result.add(id);
+                if (result.size() >= limit) break;
+            }
+        }
+        return result;
+    }
+
+    // 1-2 chars: every occurrence starts some padded trigram, so merge the postings of
+    // all trigrams with that prefix in userId order
+    private List<Long> searchByPrefix(String q, int limit) {
+        NavigableMap<String, ConcurrentSkipListSet<Long>> range =
+                postings.subMap(q, true, q + Character.MAX_VALUE, false);
+
+        PriorityQueue<Cursor> heads = new PriorityQueue<>();
+        for (Collection<Long> ids : range.values()) {
+            Iterator<Long> it = ids.iterator();
+            if (it.hasNext()) heads.add(new Cursor(it.next(), it));
+        }
+
+        List<Long> result = new ArrayList<>(Math.min(limit, 64));
+        Long last = null;
+        while (!heads.isEmpty() && result.size() < limit) {
+            Cursor head = heads.poll();
+            Long id = head.current;
+            if (head.advance()) heads.add(head);
+            if (id.equals(last)) continue;
+            last = id;
+
+            String email = documents.get(id);
+            if (email != null && email.contains(q)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static final class Cursor implements Comparable<Cursor> {
+        private Long current;
+        private final Iterator<Long> rest;
+
+        private Cursor(Long current, Iterator<Long> rest) {
+            this.current = current;
+            this.rest = rest;
+        }
+
+        private boolean advance() {
+            if (!rest.hasNext()) return false;
+            current = rest.next();
+            return true;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return current.compareTo(other.current);
+        }
+    }
+
+    private void unindex(Long id, String email) {
+        for (String gram : grams(email)) {
+            ConcurrentSkipListSet<Long> ids = postings.get(gram);
+            // empty sets are kept: the key space is small and dropping them would race with put
+            if (ids != null && ids.remove(id)) {
+                postingCount.decrementAndGet();
+            }
+        }
+    }
+
+    private static Set<String> grams(String email) {
+        String padded = email + PADDING;
+        Set<String> grams = new HashSet<>(email.length() * 2);
+        for (int i = 0; i < email.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private double estimatedBytes() {
+        return postingCount.get() * BYTES_PER_POSTING
+                + postings.size() * BYTES_PER_GRAM
+                + documents.size() * BYTES_PER_DOCUMENT
+                + documentChars.get() * 2;
+    }
+}
@@ -0,0 +1,128 @@
+package com.user_service.user_service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt hashing and verification off the request / R2DBC threads on a
+ * fixed-size pool with a bounded queue. When the queue is full the call fails
+ * fast with 503 instead of piling up work behind the event loop.
+ * New hashes use cost app.hashing.bcrypt-strength; older, cheaper hashes are
+ * reported by needsRehash so callers can upgrade them on the next login.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder encoder;
+    // compared against when the user does not exist, so unknown emails cost as much as wrong passwords
+    private final String dummyHash;
+
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHasher(MeterRegistry registry,
+                          @Value("${app.hashing.threads:4}") int threads,
+                          @Value("${app.hashing.queue-capacity:100}") int queueCapacity,
+                          @Value("${app.hashing.bcrypt-strength:10}") int strength) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.dummyHash = encoder.encode("dummy-password");
+        AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-hash-" + threadNo.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(executor, "bcrypt-hash");
+
+        Gauge.builder("user.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("Hashing tasks waiting for a worker")
+                .register(registry);
+        Gauge.builder("user.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing tasks currently running")
+                .register(registry);
+        this.hashTimer = Timer.builder("user.password.hash.duration")
+                .description("Time spent in BCrypt encode")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.verifyTimer = Timer.builder("user.password.verify.duration")
+                .description("Time spent in BCrypt matches")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.rejectedCounter = Counter.builder("user.password.hash.rejected")
+                .description("Hashing requests rejected because the queue was full")
+                .register(registry);
+
+        log.info("PasswordHasher started with threads={} queueCapacity={} strength={}", threads, queueCapacity, strength);
+    }
+
+    /**
+     * Hash a raw password on the hashing pool.
+     * Emits 503 SERVICE_UNAVAILABLE when the pool is saturated.
+     */
+    public Mono<String> encode(String rawPassword) {
+        return onPool(Mono.fromCallable(() -> hashTimer.recordCallable(() -> encoder.encode(rawPassword))));
+    }
+
+    /**
+     * Check a raw password against a stored hash on the hashing pool.
+     * A null hash (unknown user) is checked against a dummy hash and never matches.
+     * Emits 503 SERVICE_UNAVAILABLE when the pool is saturated.
+     */
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        String hash = encodedPassword == null ? dummyHash : encodedPassword;
+        return onPool(Mono.fromCallable(() -> verifyTimer.recordCallable(() -> encoder.matches(rawPassword, hash))))
+                .map(matched -> matched && encodedPassword != null);
+    }
+
+    // true when the stored hash is cheaper than the configured strength
+    public boolean needsRehash(String encodedPassword) {
+        try {
+            return encoder.upgradeEncoding(encodedPassword);
+        } catch (IllegalArgumentException e) {
+            return false; // not a BCrypt hash; matches() already rejects it
+        }
+    }
+
+    private <T> Mono<T> onPool(Mono<T> task) {
+        return task.subscribeOn(scheduler)
+                .onErrorMap(RejectedExecutionException.class, ex -> {
+                    rejectedCounter.increment();
+                    log.warn("Password hashing rejected: queue full ({} waiting)", executor.getQueue().size());
+                    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                            "Server is busy hashing passwords, please retry");
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+}
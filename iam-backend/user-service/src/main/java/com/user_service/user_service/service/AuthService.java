@@ -0,0 +1,10 @@
+package com.user_service.user_service.service;
+
+import com.user_service.user_service.dto.LoginRequestDto;
+import com.user_service.user_service.dto.LoginResponseDto;
+import reactor.core.publisher.Mono;
+
+public interface AuthService {
+
+    Mono<LoginResponseDto> login(LoginRequestDto request);
+}
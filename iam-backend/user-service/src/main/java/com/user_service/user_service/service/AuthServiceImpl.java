@@ -0,0 +1,147 @@
+package com.user_service.user_service.service;
+
+import com.user_service.user_service.activity.LoginActivityRecorder;
+import com.user_service.user_service.dto.LoginRequestDto;
+import com.user_service.user_service.dto.LoginResponseDto;
+import com.user_service.user_service.entity.UserCredentials;
+import com.user_service.user_service.enums.UserStatus;
+import com.user_service.user_service.mapper.UserMapper;
+import com.user_service.user_service.repository.UserRepository;
+import com.user_service.user_service.security.PasswordHasher;
+import com.user_service.user_service.util.TenantKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Credential verification.
+ * One indexed lookup of (tenant_id, email) for the login columns only, then BCrypt on the
+ * PasswordHasher pool (503 when saturated). Unknown emails are checked against a dummy hash
+ * so they take as long as wrong passwords. A successful login is recorded write-behind and,
+ * when the stored hash is below the configured cost, rehashed in the background.
+ */
+@Slf4j
+@Service
+public class AuthServiceImpl implements AuthService {
+
+    private static final Set<UserStatus> BLOCKED = Set.of(UserStatus.SUSPENDED, UserStatus.LOCKED);
+
+    private enum Outcome { SUCCESS, INVALID_CREDENTIALS, BLOCKED, BUSY, ERROR }
+
+    private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final LoginActivityRecorder loginActivityRecorder;
+    private final DatabaseClient databaseClient;
+
+    private final Map<Outcome, Timer> loginTimers = new EnumMap<>(Outcome.class);
+    private final Counter rehashCounter;
+
+    public AuthServiceImpl(UserRepository userRepository,
+                           PasswordHasher passwordHasher,
+                           LoginActivityRecorder loginActivityRecorder,
+                           DatabaseClient databaseClient,
+                           MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.loginActivityRecorder = loginActivityRecorder;
+        this.databaseClient = databaseClient;
+
+        for (Outcome outcome : Outcome.values()) {
+            loginTimers.put(outcome, Timer.builder("user.auth.login")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .description("Login latency by outcome")
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.rehashCounter = Counter.builder("user.auth.rehash")
+                .description("Stored password hashes upgraded to the configured cost on login")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<LoginResponseDto> login(LoginRequestDto request) {
+        long tenantId = TenantKey.of(request.getOrganization());
+        String email = UserMapper.normalizeEmail(request.getEmail());
+
+        return Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return userRepository.findCredentialsByEmail(tenantId, email)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .flatMap(user -> verify(user.orElse(null), request))
+                            .doOnSuccess(response -> record(Outcome.SUCCESS, start))
+                            .doOnError(e -> record(outcomeOf(e), start));
+                });
+    }
+
+    private Mono<LoginResponseDto> verify(UserCredentials user, LoginRequestDto request) {
+        return passwordHasher.matches(request.getPassword(), user == null ? null : user.getPassword())
+                .flatMap(matched -> {
+                    if (!matched) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid email or password"));
+                    }
+                    if (BLOCKED.contains(user.getStatus())) {
+                        return Mono.error(new ResponseStatusException(HttpStatus.FORBIDDEN,
+                                "Account is " + user.getStatus().name().toLowerCase(Locale.ROOT)));
+                    }
+                    loginActivityRecorder.record(user.getTenantId(), user.getUserId(), LocalDateTime.now());
+                    if (passwordHasher.needsRehash(user.getPassword())) {
+                        rehash(user, request.getPassword());
+                    }
+                    return Mono.just(LoginResponseDto.builder()
+                            .userId(user.getUserId())
+                            .email(user.getEmail())
+                            .organization(request.getOrganization())
+                            .status(user.getStatus())
+                            .build());
+                });
+    }
+
+    // Off the response path; only replaces the hash that was verified, never a newer password
+    private void rehash(UserCredentials user, String rawPassword) {
+        passwordHasher.encode(rawPassword)
+                .flatMap(hash -> databaseClient.sql("UPDATE user_account SET password = :hash "
+                                + "WHERE tenant_id = :tenantId AND user_id = :userId AND password = :previous")
+                        .bind("hash", hash)
+                        .bind("tenantId", user.getTenantId())
+                        .bind("userId", user.getUserId())
+                        .bind("previous", user.getPassword())
+                        .fetch()
+                        .rowsUpdated())
+                .subscribe(rows -> {
+                    if (rows > 0) {
+                        rehashCounter.increment();
+                    }
+                }, e -> log.warn("Password rehash for user id={} skipped: {}", user.getUserId(), e.getMessage()));
+    }
+
+    private void record(Outcome outcome, long start) {
+        loginTimers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Outcome outcomeOf(Throwable e) {
+        if (e instanceof ResponseStatusException rse) {
+            return switch (rse.getStatusCode().value()) {
+                case 401 -> Outcome.INVALID_CREDENTIALS;
+                case 403 -> Outcome.BLOCKED;
+                case 503 -> Outcome.BUSY;
+                default -> Outcome.ERROR;
+            };
+        }
+        return Outcome.ERROR;
+    }
+}
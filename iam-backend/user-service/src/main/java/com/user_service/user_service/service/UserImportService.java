@@ -0,0 +1,10 @@
+package com.user_service.user_service.service;
+
+import com.user_service.user_service.dto.UserImportEvent;
+import reactor.core.publisher.Flux;
+
+public interface UserImportService {
+
+    // lines of an NDJSON document, or a CSV document whose first line is the header
+    Flux<UserImportEvent> importUsers(Flux<String> lines, boolean csv);
+}
@@ -0,0 +1,372 @@
+package com.user_service.user_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user_service.user_service.dto.UserImportEvent;
+import com.user_service.user_service.dto.UserRequestDto;
+import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.entity.User;
+import com.user_service.user_service.mapper.UserMapper;
+import com.user_service.user_service.repository.UserRepository;
+import com.user_service.user_service.search.EmailSearchIndex;
+import com.user_service.user_service.security.PasswordHasher;
+import com.user_service.user_service.util.PasswordUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user import.
+ * Input is consumed line by line and handled in batches of app.import.batch-size:
+ *  - parse + validate every row, drop in-batch duplicate emails;
+ *  - one primary-key query on user_email finds emails that already exist;
+ *  - passwords are hashed in parallel on the bounded PasswordHasher pool;
+ *  - one multi-row INSERT ... ON CONFLICT DO NOTHING RETURNING per batch.
+ * Only one batch is in flight at a time, so memory stays bounded by the batch size.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_COLUMNS = "tenant_id, organization, group_name, role, email, contact_no, "
+            + "first_name, middle_name, last_name, password, status, created_at";
+    private static final int INSERT_PARAMS = 12;
+    // Postgres accepts at most 65535 bind parameters per statement
+    private static final int MAX_BIND_PARAMS = 65535;
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcEntityTemplate template;
+    private final PasswordHasher passwordHasher;
+    private final EmailSearchIndex emailSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int hashConcurrency;
+
+    private record Row(long line, UserRequestDto dto, String email, String error) {}
+
+    // exactly one of passwordHash / error is set
+    private record HashedRow(Row row, String passwordHash, String error) {}
+
+    public UserImportServiceImpl(DatabaseClient databaseClient,
+                                 R2dbcEntityTemplate template,
+                                 PasswordHasher passwordHasher,
+                                 EmailSearchIndex emailSearchIndex,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${app.import.batch-size:500}") int batchSize,
+                                 @Value("${app.import.hash-concurrency:4}") int hashConcurrency) {
+        this.databaseClient = databaseClient;
+        this.template = template;
+        this.passwordHasher = passwordHasher;
+        this.emailSearchIndex = emailSearchIndex;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BIND_PARAMS / INSERT_PARAMS));
+        this.hashConcurrency = Math.max(1, hashConcurrency);
+    }
+
+    @Override
+    public Flux<UserImportEvent> importUsers(Flux<String> lines, boolean csv) {
+        AtomicLong processed = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+
+        // line numbers are 1-based and count blank lines, so errors point at the right line
+        Flux<Row> rows = lines.index()
+                .filter(t -> !t.getT2().isBlank())
+                .switchOnFirst((first, all) -> {
+                    if (!csv || !first.hasValue()) {
+                        return all.map(t -> parseJson(t.getT1() + 1, t.getT2()));
+                    }
+                    List<String> header = parseCsvLine(first.get().getT2());
+                    return all.skip(1).map(t -> parseCsv(t.getT1() + 1, t.getT2(), header));
+                });
+
+        return rows.buffer(batchSize)
+                .concatMap(batch -> importBatch(batch, processed, inserted, failed))
+                .concatWith(Mono.fromSupplier(() -> {
+                    log.info("User import finished: processed={} inserted={} failed={}",
+                            processed.get(), inserted.get(), failed.get());
+                    return UserImportEvent.builder()
+                            .type("summary")
+                            .processed(processed.get())
+                            .inserted(inserted.get())
+                            .failed(failed.get())
+                            .build();
+                }));
+    }
+
+    private Flux<UserImportEvent> importBatch(List<Row> batch, AtomicLong processed, AtomicLong inserted, AtomicLong failed) {
+        List<UserImportEvent> events = new ArrayList<>();
+
+        Map<String, Row> unique = new LinkedHashMap<>();
+        for (Row row : batch) {
+            String error = row.error() != null ? row.error() : validate(row.dto());
+            if (error == null && unique.containsKey(row.email())) {
+                error = "Duplicate email in file";
+            }
+            if (error != null) {
+                events.add(rowError(row, error));
+            } else {
+                unique.put(row.email(), row);
+            }
+        }
+
+        return existingEmails(unique.keySet())
+                .flatMapMany(existing -> {
+                    List<Row> fresh = new ArrayList<>(unique.size());
+                    for (Row row : unique.values()) {
+                        if (existing.contains(row.email())) {
+                            events.add(rowError(row, "Email already exists"));
+                        } else {
+                            fresh.add(row);
+                        }
+                    }
+                    return Flux.fromIterable(fresh)
+                            .flatMapSequential(this::hash, hashConcurrency);
+                })
+                .collectList()
+                .flatMap(hashed -> {
+                    List<HashedRow> ready = new ArrayList<>(hashed.size());
+                    for (HashedRow h : hashed) {
+                        if (h.error() != null) {
+                            events.add(rowError(h.row(), h.error()));
+                        } else {
+                            ready.add(h);
+                        }
+                    }
+                    return insert(ready).map(insertedEmails -> {
+                        for (HashedRow h : ready) {
+                            // lost a race with a concurrent insert of the same email
+                            if (!insertedEmails.contains(h.row().email())) {
+                                events.add(rowError(h.row(), "Email already exists"));
+                            }
+                        }
+                        return insertedEmails.size();
+                    });
+                })
+                .flatMapIterable(insertedCount -> {
+                    processed.addAndGet(batch.size());
+                    inserted.addAndGet(insertedCount);
+                    failed.addAndGet(events.size());
+                    events.add(UserImportEvent.builder()
+                            .type("progress")
+                            .processed(processed.get())
+                            .inserted(inserted.get())
+                            .failed(failed.get())
+                            .build());
+                    return events;
+                });
+    }
+
+    // emails are unique across tenants, so this is one primary-key lookup on user_email
+    private Mono<Set<String>> existingEmails(Set<String> emails) {
+        if (emails.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        return databaseClient.sql("SELECT email FROM user_email WHERE email = ANY(:emails)")
+                .bind("emails", emails.toArray(String[]::new))
+                .map(row -> row.get("email", String.class))
+                .all()
+                .collect(Collectors.toSet());
+    }
+
+    private Mono<HashedRow> hash(Row row) {
+        String raw = row.dto().getPassword();
+        String password = (raw == null || raw.isBlank()) ? PasswordUtil.generateRandomPassword(12) : raw;
+        return passwordHasher.encode(password)
+                // the pool is shared with interactive requests: back off instead of failing the row
+                .retryWhen(Retry.backoff(5, Duration.ofMillis(50))
+                        .filter(UserImportServiceImpl::isBusy)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .map(hash -> new HashedRow(row, hash, null))
+                .onErrorResume(UserImportServiceImpl::isBusy,
+                        e -> Mono.just(new HashedRow(row, null, "Server busy hashing passwords, row not imported")))
+                // anything else is specific to this row: report it, keep importing the rest
+                .onErrorResume(e -> {
+                    log.warn("User import: hashing failed for line {}", row.line(), e);
+                    return Mono.just(new HashedRow(row, null, "Password hashing failed: " + e.getMessage()));
+                });
+    }
+
+    /*
+     * Returns the emails actually inserted. An email taken by a concurrent create between
+     * existingEmails() and the INSERT fails the whole statement through the user_email
+     * trigger, so the batch is re-checked and the rest inserted; if yet another email is
+     * taken meanwhile, the batch goes in row by row and only the conflicting rows are left
+     * out (reported as "Email already exists" by importBatch), never the whole import.
+     */
+    private Mono<Set<String>> insert(List<HashedRow> rows) {
+        return insertRows(rows)
+                .onErrorResume(DuplicateKeyException.class, e -> existingEmails(
+                        rows.stream().map(h -> h.row().email()).collect(Collectors.toSet()))
+                        .map(taken -> rows.stream()
+                                .filter(h -> !taken.contains(h.row().email()))
+                                .toList())
+                        .flatMap(rest -> insertRows(rest)
+                                .onErrorResume(DuplicateKeyException.class, again -> insertEach(rest))));
+    }
+
+    private Mono<Set<String>> insertEach(List<HashedRow> rows) {
+        return Flux.fromIterable(rows)
+                .concatMap(h -> insertRows(List.of(h))
+                        .onErrorResume(DuplicateKeyException.class, e -> Mono.just(Set.of())))
+                .flatMapIterable(inserted -> inserted)
+                .collect(Collectors.toSet());
+    }
+
+    private Mono<Set<String>> insertRows(List<HashedRow> rows) {
+        if (rows.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO user_account (" + INSERT_COLUMNS + ") VALUES ");
+        for (int r = 0; r < rows.size(); r++) {
+            sql.append(r == 0 ? "(" : ", (");
+            for (int c = 1; c <= INSERT_PARAMS; c++) {
+                sql.append(c == 1 ? "$" : ", $").append(r * INSERT_PARAMS + c);
+            }
+            sql.append(')');
+        }
+        sql.append(" ON CONFLICT DO NOTHING RETURNING ").append(UserRepository.VIEW_COLUMNS);
+
+        LocalDateTime now = LocalDateTime.now();
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        int p = 0;
+        for (HashedRow h : rows) {
+            User u = UserMapper.toEntity(h.row().dto(), h.passwordHash());
+            spec = spec.bind(p++, u.getTenantId());
+            spec = bind(spec, p++, u.getOrganization());
+            spec = bind(spec, p++, u.getGroupName());
+            spec = bind(spec, p++, u.getRole());
+            spec = bind(spec, p++, h.row().email());
+            spec = bind(spec, p++, u.getContactNo());
+            spec = bind(spec, p++, u.getFirstName());
+            spec = bind(spec, p++, u.getMiddleName());
+            spec = bind(spec, p++, u.getLastName());
+            spec = bind(spec, p++, u.getPassword());
+            spec = bind(spec, p++, u.getStatus().name());
+            spec = spec.bind(p++, now);
+        }
+
+        return spec.map((row, meta) -> template.getConverter().read(User.class, row, meta))
+                .all()
+                .map(UserMapper::toResponse)
+                .doOnNext(emailSearchIndex::put)
+                .map(UserResponseDto::getEmail)
+                .collect(Collectors.toSet());
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, int index, String value) {
+        return value == null ? spec.bindNull(index, String.class) : spec.bind(index, value);
+    }
+
+    private Row parseJson(long line, String text) {
+        try {
+            UserRequestDto dto = objectMapper.readValue(text, UserRequestDto.class);
+            return new Row(line, dto, UserMapper.normalizeEmail(dto.getEmail()), null);
+        } catch (JsonProcessingException e) {
+            return new Row(line, null, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row parseCsv(long line, String text, List<String> header) {
+        List<String> values = parseCsvLine(text);
+        if (values.size() > header.size()) {
+            return new Row(line, null, null, "Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> byColumn = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String v = values.get(i).trim();
+            byColumn.put(header.get(i).trim().toLowerCase(Locale.ROOT), v.isEmpty() ? null : v);
+        }
+        UserRequestDto dto = UserRequestDto.builder()
+                .firstName(byColumn.get("firstname"))
+                .middleName(byColumn.get("middlename"))
+                .lastName(byColumn.get("lastname"))
+                .email(byColumn.get("email"))
+                .organization(byColumn.get("organization"))
+                .groupName(byColumn.get("groupname"))
+                .role(byColumn.get("role"))
+                .contactNo(byColumn.get("contactno"))
+                .password(byColumn.get("password"))
+                .build();
+        return new Row(line, dto, UserMapper.normalizeEmail(dto.getEmail()), null);
+    }
+
+    // Minimal RFC 4180 field splitting: quoted fields, "" escapes; no embedded newlines
+    static List<String> parseCsvLine(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private String validate(UserRequestDto dto) {
+        Set<ConstraintViolation<UserRequestDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static UserImportEvent rowError(Row row, String message) {
+        return UserImportEvent.builder()
+                .type("error")
+                .line(row.line())
+                .email(row.email())
+                .message(message)
+                .build();
+    }
+
+    private static boolean isBusy(Throwable e) {
+        return e instanceof ResponseStatusException rse
+                && rse.getStatusCode().value() == HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+}
@@ -1,23 +1,40 @@
 package com.user_service.user_service.service;
 
+import com.user_service.user_service.dto.BatchResponseDto;
+import com.user_service.user_service.dto.CursorPageResponse;
 import com.user_service.user_service.dto.PageResponse;
+import com.user_service.user_service.dto.UserPatchDto;
 import com.user_service.user_service.dto.UserRequestDto;
 import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.enums.CountMode;
+import com.user_service.user_service.enums.UserStatus;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 
 public interface UserService {
     Mono<UserResponseDto> createUser(UserRequestDto userRequestDto);
     Mono<UserResponseDto> getUserById(Long userId);
+
+    Mono<BatchResponseDto<UserResponseDto>> getUsersByIds(List<Long> userIds);
+
+    Mono<UserResponseDto> getUserByEmail(String organization, String email);
     Flux<UserResponseDto> getAllUsers();
+
+    Flux<UserResponseDto> exportUsers(String organization, UserStatus status);
+    Mono<UserResponseDto> patchUser(Long id, UserPatchDto dto);
+
     Mono<UserResponseDto> updateUser(Long userId, UserRequestDto userRequestDto);
     Mono<Void> deleteUser(Long userId);
 
-    Flux<UserResponseDto> searchByEmail(String emailFragment);
+    Flux<UserResponseDto> searchByEmail(String emailFragment, int limit);
+
+    Mono<PageResponse<UserResponseDto>> getUsers(int page, int size, String dbSortBy, String sortDir, CountMode countMode);
 
-    Mono<PageResponse<UserResponseDto>> getUsers(int page, int size, String dbSortBy, String sortDir);
+    Mono<CursorPageResponse<UserResponseDto>> getUsersByCursor(String cursor, int size, String dbSortBy, String sortDir, boolean withTotal);
 
 //    Flux<Object> searchUsers(String query, int safePage, int safeSize);
-Mono<PageResponse<UserResponseDto>> searchByOrganization(String organization, int page, int size, String sortBy, String sortDir);
+Mono<PageResponse<UserResponseDto>> searchByOrganization(String organization, int page, int size, String sortBy, String sortDir, CountMode countMode);
 }
@@ -1,19 +1,35 @@
 package com.user_service.user_service.service;
 
+import com.user_service.user_service.cache.UserCache;
+import com.user_service.user_service.dto.BatchResponseDto;
+import com.user_service.user_service.dto.CursorPageResponse;
 import com.user_service.user_service.dto.PageResponse;
+import com.user_service.user_service.dto.UserPatchDto;
 import com.user_service.user_service.dto.UserRequestDto;
 import com.user_service.user_service.dto.UserResponseDto;
 import com.user_service.user_service.entity.User;
+import com.user_service.user_service.entity.UserView;
+import com.user_service.user_service.enums.CountMode;
+import com.user_service.user_service.enums.UserStatus;
 import com.user_service.user_service.exception.ResourceNotFoundException;
 import com.user_service.user_service.mapper.UserMapper;
 import com.user_service.user_service.repository.UserRepository;
+import com.user_service.user_service.search.EmailSearchIndex;
+import com.user_service.user_service.security.PasswordHasher;
+import com.user_service.user_service.util.PageCursor;
 import com.user_service.user_service.util.PasswordUtil;
+import com.user_service.user_service.util.TenantKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
@@ -24,74 +40,122 @@ import org.springframework.data.relational.core.query.Criteria;
 
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class UserServiceImpl implements UserService {
 
+    // Columns usable for keyset pagination; each has a (column, user_id) index in schema.sql
+    private static final Set<String> CURSOR_SORT_COLUMNS =
+            Set.of("user_id", "email", "first_name", "last_name", "created_at");
+
+    private static final int MAX_EMAIL_SEARCH_RESULTS = 500;
+
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private R2dbcEntityTemplate template;
+    @Autowired
+    private PasswordHasher passwordHasher;
+    @Autowired
+    private EmailSearchIndex emailSearchIndex;
+    @Autowired
+    private UserCache userCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${app.export.fetch-size:500}")
+    private int exportFetchSize;
+    @Value("${app.batch.max-ids:500}")
+    private int maxBatchIds;
 
-
-
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-    
     /**
      * Create a new user.
      * - checks duplicate email
+     * - hashes password on the bounded hashing pool
      * - maps DTO -> entity
-     * - hashes password
      * - sets createdAt only (do not set updatedAt here)
      */
     @Override
     public Mono<UserResponseDto> createUser(UserRequestDto dto) {
         log.info("Attempting to create user with email={}", dto.getEmail());
 
-        String normalizedEmail = dto.getEmail().trim().toLowerCase();
-
-        // ensure email uniqueness
-        return userRepository.existsByEmail(normalizedEmail)
-                .flatMap(exists -> {
-                    if (Boolean.TRUE.equals(exists)) {
-                        log.warn("User creation failed: email already exists={}", dto.getEmail());
-                        return Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists"));
-                    }
+        // determine raw password once
+        final String rawPassword =
+                (dto.getPassword() == null || dto.getPassword().isBlank())
+                        ? PasswordUtil.generateRandomPassword(12)
+                        : dto.getPassword();
 
+        // single INSERT; email uniqueness across tenants is enforced through user_email (schema.sql)
+        return passwordHasher.encode(rawPassword)
+                .flatMap(hash -> {
                     // map dto to entity
-                    User entity = UserMapper.toEntity(dto);
-
-                    // determine raw password once
-                    final String rawPassword =
-                            (dto.getPassword() == null || dto.getPassword().isBlank())
-                                    ? PasswordUtil.generateRandomPassword(12)
-                                    : dto.getPassword();
+                    User entity = UserMapper.toEntity(dto, hash);
 
                     // set createdAt only
                     entity.setCreatedAt(LocalDateTime.now());
 
-                    log.debug("Saving new user (email={}) to repository", dto.getEmail());
-
-                    return userRepository.save(entity)
-                            .map(saved -> {
-                                log.info("User created successfully: id={} email={}", saved.getUserId(), saved.getEmail());
-                                return UserMapper.toResponse(saved);
-                            });
-                });
+                    log.debug("Saving new user (email={}) to repository", entity.getEmail());
+                    return userRepository.save(entity);
+                })
+                .onErrorMap(DuplicateKeyException.class, e -> {
+                    log.warn("User creation failed: email already exists={}", dto.getEmail());
+                    return emailConflict(e);
+                })
+                .map(saved -> {
+                    log.info("User created successfully: id={} email={}", saved.getUserId(), saved.getEmail());
+                    return UserMapper.toResponse(saved);
+                })
+                .doOnNext(emailSearchIndex::put);
     }
 
-
+    private static ResponseStatusException emailConflict(DuplicateKeyException e) {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists", e);
+    }
 
 
 
     @Override
     public Flux<UserResponseDto> getAllUsers() {
-        return userRepository.findAll()
-                .map(UserMapper::toResponse)
-                .sort(Comparator.comparing(UserResponseDto::getUserId));
+        return userRepository.findAllProjectedByOrderByUserIdAsc()
+                .map(UserMapper::toResponse);
+    }
+
+    /**
+     * Streams users in user_id order straight from a server-side cursor.
+     * Rows are pulled exportFetchSize at a time as the subscriber requests them,
+     * so nothing is buffered beyond one fetch.
+     */
+    @Override
+    public Flux<UserResponseDto> exportUsers(String organization, UserStatus status) {
+        StringBuilder sql = new StringBuilder("SELECT " + UserRepository.VIEW_COLUMNS + " FROM user_account WHERE 1=1");
+        if (organization != null && !organization.isBlank()) {
+            sql.append(" AND ").append(UserRepository.TENANT_PREDICATE);
+        }
+        if (status != null) {
+            sql.append(" AND status = :status");
+        }
+        sql.append(" ORDER BY user_id");
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString())
+                .filter(statement -> statement.fetchSize(exportFetchSize));
+        if (organization != null && !organization.isBlank()) {
+            spec = spec.bind("tenantId", TenantKey.of(organization))
+                    .bind("organization", TenantKey.normalize(organization));
+        }
+        if (status != null) {
+            spec = spec.bind("status", status.name());
+        }
+        return spec.map((row, meta) -> template.getConverter().read(User.class, row, meta))
+                .all()
+                .map(UserMapper::toResponse);
     }
 
     @Override
@@ -102,13 +166,73 @@ public class UserServiceImpl implements UserService {
                     UserMapper.updateEntity(existing, dto);
                     existing.setUpdatedAt(LocalDateTime.now());
 
-                    return userRepository.save(existing);
+                    if (dto.getPassword() == null || dto.getPassword().isBlank()) {
+                        return Mono.just(existing);
+                    }
+                    return passwordHasher.encode(dto.getPassword())
+                            .map(hash -> {
+                                existing.setPassword(hash);
+                                return existing;
+                            });
                 })
-                .map(UserMapper::toResponse);
+                .flatMap(userRepository::save)
+                .onErrorMap(DuplicateKeyException.class, UserServiceImpl::emailConflict)
+                .map(UserMapper::toResponse)
+                .doOnNext(this::afterWrite);
     }
 
+    // Keep this replica's read-side structures in step; other replicas learn via UserChangeListener
+    private void afterWrite(UserResponseDto user) {
+        userCache.invalidate(user.getUserId());
+        emailSearchIndex.put(user);
+    }
 
 
+
+    /**
+     * Partial update in one round trip: only the supplied columns are written and the
+     * row is matched on (user_id, version). When nothing matches, a follow-up existence
+     * check tells a missing user (404) from a stale version (409).
+     */
+    @Override
+    public Mono<UserResponseDto> patchUser(Long id, UserPatchDto dto) {
+        Map<String, Object> changes = UserMapper.toChanges(dto);
+        Mono<Map<String, Object>> withPassword = (dto.getPassword() == null || dto.getPassword().isBlank())
+                ? Mono.just(changes)
+                : passwordHasher.encode(dto.getPassword()).map(hash -> {
+                    changes.put("password", hash);
+                    return changes;
+                });
+
+        return withPassword
+                .flatMap(c -> patchRow(id, dto.getVersion(), c))
+                .onErrorMap(DuplicateKeyException.class, UserServiceImpl::emailConflict)
+                .switchIfEmpty(Mono.defer(() -> userRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new OptimisticLockingFailureException(
+                                        "User " + id + " was modified by someone else (version " + dto.getVersion() + " is stale)")
+                                : new ResourceNotFoundException("User not found")))))
+                .map(UserMapper::toResponse)
+                .doOnNext(this::afterWrite);
+    }
+
+    private Mono<User> patchRow(Long id, long version, Map<String, Object> changes) {
+        StringBuilder sql = new StringBuilder("UPDATE user_account SET ");
+        changes.keySet().forEach(column -> sql.append(column).append(" = :").append(column).append(", "));
+        sql.append("updated_at = :updatedAt, version = version + 1 WHERE user_id = :id AND version = :version RETURNING ")
+                .append(UserRepository.VIEW_COLUMNS);
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql.toString());
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            spec = spec.bind(change.getKey(), change.getValue());
+        }
+        return spec.bind("updatedAt", LocalDateTime.now())
+                .bind("id", id)
+                .bind("version", version)
+                .map((row, meta) -> template.getConverter().read(User.class, row, meta))
+                .one();
+    }
+
     @Override
     public Mono<Void> deleteUser(Long userId) {
         return userRepository.existsById(userId)
@@ -116,99 +240,320 @@ public class UserServiceImpl implements UserService {
                     if (!exists) {
                         return Mono.error(new ResourceNotFoundException("User not found"));
                     }
-                    return userRepository.deleteById(userId);
+                    return userRepository.deleteById(userId)
+                            .then(Mono.fromRunnable(() -> {
+                                userCache.invalidate(userId);
+                                emailSearchIndex.remove(userId);
+                            }));
                 });
     }
 
 
     @Override
     public Mono<UserResponseDto> getUserById(Long userId) {
-        return userRepository.findById(userId)
-                .switchIfEmpty(Mono.error(new ResourceNotFoundException("User not found")))
-                .map(UserMapper::toResponse);
+        return userCache.getById(userId)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("User not found")));
+    }
+
+    /**
+     * Batch get by id: cache hits are served directly, the misses are fetched together
+     * with a single WHERE user_id = ANY(...) query.
+     */
+    @Override
+    public Mono<BatchResponseDto<UserResponseDto>> getUsersByIds(List<Long> userIds) {
+        List<Long> wanted = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (wanted.size() > maxBatchIds) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchIds + " ids per batch, got " + wanted.size()));
+        }
+        if (wanted.isEmpty()) {
+            return Mono.just(new BatchResponseDto<>(Map.of(), List.of()));
+        }
+
+        return userCache.getAllById(wanted)
+                .map(users -> {
+                    Map<Long, UserResponseDto> found = new LinkedHashMap<>();
+                    List<Long> missing = new ArrayList<>();
+                    for (Long id : wanted) {
+                        UserResponseDto user = users.get(id);
+                        if (user != null) {
+                            found.put(id, user);
+                        } else {
+                            missing.add(id);
+                        }
+                    }
+                    return new BatchResponseDto<>(found, missing);
+                });
+    }
+
+    @Override
+    public Mono<UserResponseDto> getUserByEmail(String organization, String email) {
+        return userCache.getByEmail(organization, email)
+                .switchIfEmpty(Mono.error(new ResourceNotFoundException("User not found")));
     }
 
 
     @Override
-    public Flux<UserResponseDto> searchByEmail(String emailFragment) {
+    public Flux<UserResponseDto> searchByEmail(String emailFragment, int limit) {
         String q = emailFragment == null ? "" : emailFragment.trim();
         if (q.isEmpty()) {
             return Flux.empty();
         }
-        // Case-insensitive "contains" search
+        int max = Math.min(Math.max(limit, 1), MAX_EMAIL_SEARCH_RESULTS);
+
+        // Case-insensitive "contains" search, answered from the in-memory trigram index;
+        // it only holds ids, the users themselves come from the cache in the index's order
+        if (emailSearchIndex.isReady()) {
+            List<Long> ids = emailSearchIndex.search(q, max);
+            if (ids.isEmpty()) {
+                return Flux.empty();
+            }
+            return userCache.getAllById(ids)
+                    .flatMapIterable(users -> ids.stream()
+                            .map(users::get)
+                            .filter(Objects::nonNull)
+                            .toList());
+        }
+        // index still building: go to the database
         return userRepository.findByEmailContainingIgnoreCase(q)
+                .take(max)
                 .map(UserMapper::toResponse);
     }
 
     @Override
-    public Mono<PageResponse<UserResponseDto>> getUsers(int page, int size, String sortBy, String sortDir) {
+    public Mono<PageResponse<UserResponseDto>> getUsers(int page, int size, String sortBy, String sortDir, CountMode countMode) {
         if (page < 0) page = 0;
         if (size <= 0) size = 10;
 
         Sort.Direction direction = "asc".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
         org.springframework.data.domain.Sort sort = org.springframework.data.domain.Sort.by(direction, sortBy == null ? "user_id" : sortBy);
 
+        // one extra row tells whether a next page exists, whatever the count mode
         Query query = Query.query(Criteria.empty())
                 .sort(sort)
-                .limit(size)
+                .limit(size + 1)
                 .offset((long) page * size);
 
-        Flux<UserResponseDto> contentFlux = template.select(query, User.class)
+        Flux<UserResponseDto> contentFlux = template.select(User.class)
+                .as(UserView.class)
+                .matching(query)
+                .all()
                 .map(UserMapper::toResponse);
 
-        Mono<List<UserResponseDto>> contentMono = contentFlux.collectList();
-        Mono<Long> countMono = template.count(Query.empty(), User.class);
+        Mono<Long> countMono = switch (countMode) {
+            case EXACT -> template.count(Query.empty(), User.class);
+            case ESTIMATED -> estimatedUserCount();
+            case NONE -> Mono.empty();
+        };
+
+        return toPage(contentFlux, countMono, page, size);
+
+    }
+
+
+    /**
+     * Keyset (cursor) pagination.
+     * Each page seeks past the (sortKey, user_id) of the previous page's boundary row
+     * instead of using OFFSET, so latency stays flat however deep the client pages.
+     * The seek predicate follows Postgres NULL ordering (last when ASC, first when DESC).
+     */
+    @Override
+    public Mono<CursorPageResponse<UserResponseDto>> getUsersByCursor(
+            String cursor, int size, String sortBy, String sortDir, boolean withTotal) {
+        if (size <= 0) size = 10;
+
+        PageCursor from = null;
+        String column;
+        boolean asc;
+        if (cursor == null || cursor.isBlank()) {
+            column = sortBy == null ? "user_id" : sortBy;
+            asc = !"desc".equalsIgnoreCase(sortDir);
+        } else {
+            try {
+                from = PageCursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage()));
+            }
+            column = from.column();
+            asc = from.asc();
+        }
+        if (!CURSOR_SORT_COLUMNS.contains(column)) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Cursor pagination cannot sort by " + column));
+        }
+
+        // going backward = scanning in the opposite direction, then flipping the page
+        boolean backward = from != null && from.backward();
+        boolean scanAsc = asc != backward;
+
+        // one extra row tells us whether there is anything beyond this page
+        Mono<List<User>> rowsMono = seekPage(column, scanAsc, from, size + 1).collectList();
+        Mono<Optional<Long>> totalMono = withTotal
+                ? template.count(Query.empty(), User.class).map(Optional::of)
+                : Mono.just(Optional.empty());
 
         int finalSize = size;
-        int finalPage = page;
-        return Mono.zip(contentMono, countMono)
+        boolean hasCursor = from != null;
+        return Mono.zip(rowsMono, totalMono)
                 .map(tuple -> {
-                    List<UserResponseDto> content = tuple.getT1();
-                    long total = tuple.getT2();
-                    int totalPages = (int) Math.ceil((double) total / finalSize);
-                    return new PageResponse<>(content, finalPage, finalSize, total, totalPages);
+                    List<UserResponseDto> rows = new ArrayList<>(tuple.getT1().stream().map(UserMapper::toResponse).toList());
+                    boolean more = rows.size() > finalSize;
+                    if (more) {
+                        rows.remove(rows.size() - 1);
+                    }
+                    if (backward) {
+                        Collections.reverse(rows);
+                    }
+
+                    // when paging backward, the page we came from is still ahead of us
+                    boolean hasNext = backward || more;
+                    boolean hasPrev = backward ? more : hasCursor;
+
+                    String next = hasNext && !rows.isEmpty()
+                            ? cursorFor(column, asc, false, rows.get(rows.size() - 1)) : null;
+                    String prev = hasPrev && !rows.isEmpty()
+                            ? cursorFor(column, asc, true, rows.get(0)) : null;
+
+                    return new CursorPageResponse<>(rows, finalSize, next, prev, tuple.getT2().orElse(null));
                 });
+    }
 
+    /**
+     * Up to {@code limit} rows past the cursor in scan order. The seek is a row-value
+     * comparison (column, user_id) > (:value, :userId) (< when DESC), which the (column, user_id)
+     * index turns into a single range scan. A NULL key never satisfies a row comparison, so
+     * NULLs get their own branch, placed the way the index and ORDER BY sort them:
+     * last when ASC, first when DESC.
+     */
+    private Flux<User> seekPage(String column, boolean asc, PageCursor from, int limit) {
+        String dir = asc ? "ASC" : "DESC";
+        String cmp = asc ? ">" : "<";
+        String order = "user_id".equals(column)
+                ? "user_id " + dir
+                : column + " " + dir + ", user_id " + dir;
+
+        String sql;
+        Object value = null;
+        if (from == null) {
+            sql = page(null, order);
+        } else if ("user_id".equals(column)) {
+            sql = page("user_id " + cmp + " :userId", order);
+        } else {
+            value = cursorValue(column, from.value());
+            if (value != null) {
+                String seek = page("(" + column + ", user_id) " + cmp + " (:value, :userId)", order);
+                // past the last non-NULL key come the NULLs when ASC; when DESC they came first
+                sql = asc ? union(seek, page(column + " IS NULL", "user_id " + dir), order) : seek;
+            } else {
+                String nulls = page(column + " IS NULL AND user_id " + cmp + " :userId", "user_id " + dir);
+                sql = asc ? nulls : union(nulls, page(column + " IS NOT NULL", order), order);
+            }
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = template.getDatabaseClient().sql(sql)
+                .bind("limit", limit);
+        if (from != null) {
+            spec = spec.bind("userId", from.userId());
+        }
+        if (value != null) {
+            spec = spec.bind("value", value);
+        }
+        return spec.map((row, meta) -> template.getConverter().read(User.class, row, meta)).all();
+    }
+
+    private static String page(String where, String order) {
+        return "SELECT " + UserRepository.VIEW_COLUMNS + " FROM user_account"
+                + (where == null ? "" : " WHERE " + where)
+                + " ORDER BY " + order + " LIMIT :limit";
+    }
+
+    private static String union(String first, String second, String order) {
+        return "(" + first + ") UNION ALL (" + second + ") ORDER BY " + order + " LIMIT :limit";
+    }
+
+    private static Object cursorValue(String column, String value) {
+        if (value == null) return null;
+        return "created_at".equals(column) ? LocalDateTime.parse(value) : value;
+    }
+
+    private static String cursorFor(String column, boolean asc, boolean backward, UserResponseDto row) {
+        String value = switch (column) {
+            case "email" -> row.getEmail();
+            case "first_name" -> row.getFirstName();
+            case "last_name" -> row.getLastName();
+            case "created_at" -> row.getCreatedAt() == null ? null : row.getCreatedAt().toString();
+            default -> null; // user_id: the id itself is the key
+        };
+        return new PageCursor(column, asc, backward, row.getUserId(), value).encode();
     }
 
 
     @Override
     public Mono<PageResponse<UserResponseDto>> searchByOrganization(
-            String organization, int page, int size, String sortBy, String sortDir) {
+            String organization, int page, int size, String sortBy, String sortDir, CountMode countMode) {
 
-        if (organization == null) organization = "";
         if (page < 0) page = 0;
         if (size <= 0) size = 10;
 
         long skip = (long) page * size;
+        // one normalization for the partition key and the organization predicate alike
+        long tenantId = TenantKey.of(organization);
+        String tenant = TenantKey.normalize(organization);
+
+        // Sorting / paging happen in Postgres (ordered by userId, as before) within the
+        // tenant's partition; the count is a separate query over the same partition.
+        Flux<UserView> pageFlux = "desc".equalsIgnoreCase(sortDir)
+                ? userRepository.findPageByOrganizationDesc(tenantId, tenant, size + 1, skip)
+                : userRepository.findPageByOrganizationAsc(tenantId, tenant, size + 1, skip);
+
+        Mono<Long> totalMono = switch (countMode) {
+            case EXACT -> userRepository.countByOrganization(tenantId, tenant);
+            case ESTIMATED -> estimatedOrganizationCount(tenantId, tenant);
+            case NONE -> Mono.empty();
+        };
+
+        return toPage(pageFlux.map(UserMapper::toResponse), totalMono, page, size);
+    }
 
-        // Fetch matching users, then sort by userId ASC (as requested)
-        Flux<User> flux = userRepository.findByOrganization(organization)
-                .sort(Comparator.comparing(User::getUserId,
-                        Comparator.nullsLast(Comparator.naturalOrder())));
-
-        // Optional: honor sortDir if provided
-        if ("desc".equalsIgnoreCase(sortDir)) {
-            flux = flux.sort(Comparator.comparing(User::getUserId,
-                    Comparator.nullsLast(Comparator.naturalOrder())).reversed());
-        }
-
-        Mono<Long> totalMono = flux.count();
-
-        Mono<List<UserResponseDto>> contentMono = flux
-                .skip(skip)
-                .take(size)
-                .map(UserMapper::toResponse)
-                .collectList();
-
-        int finalPage = page;
-        int finalSize = size;
-        return Mono.zip(contentMono, totalMono)
+    // rows holds up to size + 1 elements; the extra one only signals hasNext
+    private static Mono<PageResponse<UserResponseDto>> toPage(Flux<UserResponseDto> rows, Mono<Long> total, int page, int size) {
+        return Mono.zip(rows.collectList(), total.map(Optional::of).defaultIfEmpty(Optional.empty()))
                 .map(tuple -> {
                     List<UserResponseDto> content = tuple.getT1();
-                    long totalElements = tuple.getT2();
-                    int totalPages = (int) ((totalElements + finalSize - 1) / finalSize);
-                    return new PageResponse<>(content, finalPage, finalSize, totalElements, totalPages);
+                    boolean hasNext = content.size() > size;
+                    if (hasNext) {
+                        content = content.subList(0, size);
+                    }
+                    return PageResponse.of(content, page, size, tuple.getT2().orElse(null), hasNext);
+                });
+    }
+
+    // Planner statistics summed over the partitions (refreshed by autovacuum / ANALYZE);
+    // exact count while any partition has never been analyzed
+    private Mono<Long> estimatedUserCount() {
+        return template.getDatabaseClient()
+                .sql("SELECT CASE WHEN bool_and(c.reltuples >= 0) THEN SUM(c.reltuples)::bigint ELSE -1 END AS estimate "
+                        + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'user_account'::regclass")
+                .map(row -> row.get("estimate", Long.class))
+                .one()
+                .flatMap(estimate -> estimate < 0 ? template.count(Query.empty(), User.class) : Mono.just(estimate));
+    }
+
+    // Row estimate of the planner for the filter, read from EXPLAIN; no rows are scanned
+    private Mono<Long> estimatedOrganizationCount(long tenantId, String organization) {
+        return template.getDatabaseClient()
+                .sql("EXPLAIN (FORMAT JSON) SELECT 1 FROM user_account WHERE " + UserRepository.TENANT_PREDICATE)
+                .bind("tenantId", tenantId)
+                .bind("organization", organization)
+                .map(row -> row.get(0, String.class))
+                .one()
+                .map(plan -> {
+                    try {
+                        return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Unreadable EXPLAIN output", e);
+                    }
                 });
     }
 
@@ -0,0 +1,42 @@
+package com.user_service.user_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: sort column + direction + the sort key and user_id of
+ * the row the next page starts after. backward=true means "page before this row".
+ * Encoded as URL-safe base64 of "v1|column|asc|backward|userId|value".
+ */
+public record PageCursor(String column, boolean asc, boolean backward, long userId, String value) {
+
+    private static final String VERSION = "v1";
+    private static final String NULL_VALUE = "~";
+    private static final String VALUE_PREFIX = "=";
+
+    public String encode() {
+        String raw = String.join("|",
+                VERSION,
+                column,
+                asc ? "asc" : "desc",
+                backward ? "b" : "f",
+                Long.toString(userId),
+                value == null ? NULL_VALUE : VALUE_PREFIX + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // value goes last so it may itself contain '|'
+            String[] parts = raw.split("\\|", 6);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unsupported cursor");
+            }
+            String value = parts[5].equals(NULL_VALUE) ? null : parts[5].substring(VALUE_PREFIX.length());
+            return new PageCursor(parts[1], "asc".equals(parts[2]), "b".equals(parts[3]), Long.parseLong(parts[4]), value);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.user_service.user_service.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Numeric tenant key of a user row: the first 64 bits of md5 over the organization with
+ * surrounding spaces stripped and ASCII letters lower-cased.
+ * user_account is hash-partitioned on it, so every tenant-scoped query binds it next to
+ * its organization predicate to let Postgres prune partitions.
+ * Must stay identical to the tenant_key(text) SQL function in schema.sql, which is why the
+ * normalization is spelled out instead of using trim() / toLowerCase(): those strip control
+ * chars and fold non-ASCII letters, which btrim(x, ' ') and lower(x COLLATE "C") do not.
+ */
+public final class TenantKey {
+
+    private TenantKey() {
+    }
+
+    public static long of(String organization) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(normalize(organization).getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+
+    /**
+     * The organization as the tenant key sees it: lower(btrim(coalesce(organization, ''), ' ') COLLATE "C").
+     * Bound as :organization in UserRepository.TENANT_PREDICATE, which normalizes the column the same way.
+     */
+    public static String normalize(String organization) {
+        if (organization == null) {
+            return "";
+        }
+        int start = 0;
+        int end = organization.length();
+        while (start < end && organization.charAt(start) == ' ') start++;
+        while (end > start && organization.charAt(end - 1) == ' ') end--;
+
+        char[] chars = organization.substring(start, end).toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+}
@@ -1,9 +1,42 @@
+-- Tenant key: first 64 bits of md5 over the organization with surrounding spaces stripped and
+-- only ASCII letters lower-cased (COLLATE "C"), so the key never depends on the database locale.
+-- The service computes the same value in TenantKey and binds it; TenantKeySqlTest checks the two
+-- agree. Used here for backfills.
+CREATE OR REPLACE FUNCTION tenant_key(organization TEXT) RETURNS BIGINT AS '
+    SELECT (''x'' || left(md5(lower(btrim(coalesce(organization, ''''), '' '') COLLATE "C")), 16))::bit(64)::bigint
+' LANGUAGE sql IMMUTABLE;
+
+-- One-time move of a pre-partitioning user_account out of the way; its rows are copied
+-- into the partitioned table further down. The id sequence is kept so ids stay stable.
+DO '
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = to_regclass(''user_account'')) = ''r'' THEN
+        ALTER TABLE user_account ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+        ALTER SEQUENCE IF EXISTS user_account_user_id_seq OWNED BY NONE;
+        DROP TRIGGER IF EXISTS trg_user_account_notify ON user_account;
+        ALTER TABLE user_account RENAME TO user_account_unpartitioned;
+        ALTER TABLE user_account_unpartitioned RENAME CONSTRAINT user_account_pkey TO user_account_unpartitioned_pkey;
+        ALTER TABLE user_account_unpartitioned DROP CONSTRAINT IF EXISTS user_account_email_key;
+        DROP INDEX IF EXISTS idx_user_account_created_at_id, idx_user_account_first_name_id,
+            idx_user_account_last_name_id, idx_user_account_email_id, idx_user_account_org_lower,
+            ux_user_account_email_lower;
+    END IF;
+END;
+';
+
+CREATE SEQUENCE IF NOT EXISTS user_account_user_id_seq;
+
+-- Hash-partitioned by tenant: tenant-scoped queries bind tenant_id and touch one partition.
+-- Primary and unique keys must contain the partition key, hence (tenant_id, user_id); user_id
+-- still comes from one sequence and is unique overall, email through user_email below.
+-- The modulus is fixed once created; changing it means repartitioning into a new table.
 CREATE TABLE IF NOT EXISTS user_account (
-    user_id BIGSERIAL PRIMARY KEY,
+    tenant_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL DEFAULT nextval('user_account_user_id_seq'),
     organization VARCHAR(255),
     group_name VARCHAR(255),
     role VARCHAR(255),
-    email VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL,
     contact_no VARCHAR(50),
     first_name VARCHAR(100),
     middle_name VARCHAR(100),
@@ -12,5 +45,146 @@ CREATE TABLE IF NOT EXISTS user_account (
     last_login TIMESTAMP,
     status VARCHAR(50) DEFAULT 'ACTIVE',
     created_at TIMESTAMP,
-    updated_at TIMESTAMP
-    );
\ No newline at end of file
+    updated_at TIMESTAMP,
+    -- Optimistic concurrency: bumped on every update, checked by PATCH
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (tenant_id, user_id)
+    ) PARTITION BY HASH (tenant_id);
+
+ALTER SEQUENCE user_account_user_id_seq OWNED BY user_account.user_id;
+
+CREATE TABLE IF NOT EXISTS user_account_p0 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS user_account_p1 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS user_account_p2 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS user_account_p3 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS user_account_p4 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS user_account_p5 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS user_account_p6 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS user_account_p7 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 7);
+CREATE TABLE IF NOT EXISTS user_account_p8 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 8);
+CREATE TABLE IF NOT EXISTS user_account_p9 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 9);
+CREATE TABLE IF NOT EXISTS user_account_p10 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 10);
+CREATE TABLE IF NOT EXISTS user_account_p11 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 11);
+CREATE TABLE IF NOT EXISTS user_account_p12 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 12);
+CREATE TABLE IF NOT EXISTS user_account_p13 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 13);
+CREATE TABLE IF NOT EXISTS user_account_p14 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 14);
+CREATE TABLE IF NOT EXISTS user_account_p15 PARTITION OF user_account FOR VALUES WITH (MODULUS 16, REMAINDER 15);
+
+DO '
+BEGIN
+    IF to_regclass(''user_account_unpartitioned'') IS NOT NULL THEN
+        INSERT INTO user_account (tenant_id, user_id, organization, group_name, role, email, contact_no,
+                                  first_name, middle_name, last_name, password, last_login, status,
+                                  created_at, updated_at, version)
+        SELECT tenant_key(organization), user_id, organization, group_name, role, email, contact_no,
+               first_name, middle_name, last_name, password, last_login, status,
+               created_at, updated_at, version
+        FROM user_account_unpartitioned;
+        DROP TABLE user_account_unpartitioned;
+    END IF;
+END;
+';
+
+-- Re-key rows written while the key still used locale-dependent lower() and Java's trim(), which
+-- differ for organizations with non-ASCII capitals or edge control chars. Runs once: the function
+-- comment records the key version.
+DO '
+BEGIN
+    IF obj_description(''tenant_key(text)''::regprocedure, ''pg_proc'') IS DISTINCT FROM ''tenant key v2'' THEN
+        UPDATE user_account SET tenant_id = tenant_key(organization) WHERE tenant_id <> tenant_key(organization);
+        COMMENT ON FUNCTION tenant_key(text) IS ''tenant key v2'';
+    END IF;
+END;
+';
+
+-- Lookups by id alone (the REST API does not carry the tenant): one index probe per partition
+CREATE INDEX IF NOT EXISTS idx_user_account_user_id ON user_account (user_id);
+
+-- Keyset pagination: (sort key, user_id) indexes for the cursor sort columns. They keep the
+-- default NULLS LAST (NULLS FIRST when scanned backward), which is where the cursor query puts NULLs
+CREATE INDEX IF NOT EXISTS idx_user_account_created_at_id ON user_account (created_at, user_id);
+CREATE INDEX IF NOT EXISTS idx_user_account_first_name_id ON user_account (first_name, user_id);
+CREATE INDEX IF NOT EXISTS idx_user_account_last_name_id ON user_account (last_name, user_id);
+CREATE INDEX IF NOT EXISTS idx_user_account_email_id ON user_account (email, user_id);
+
+-- Organization pages need no extra index: tenant_id = ? ORDER BY user_id is the primary key
+
+-- Tenant-scoped email lookups (login); new rows are stored lower-cased by the service
+CREATE UNIQUE INDEX IF NOT EXISTS ux_user_account_tenant_email_lower ON user_account (tenant_id, LOWER(email));
+
+-- Emails are unique across all tenants. A partitioned table cannot have a unique index without
+-- the partition key, so every row claims its LOWER(email) here; a taken email fails the write
+-- with a unique violation on user_email_pkey. Also serves email lookups without an organization.
+-- Created and backfilled once; if older rows already share an email across tenants, the lowest
+-- user_id keeps the claim.
+DO '
+BEGIN
+    IF to_regclass(''user_email'') IS NULL THEN
+        CREATE TABLE user_email (
+            email VARCHAR(255) PRIMARY KEY,
+            user_id BIGINT NOT NULL
+        );
+        INSERT INTO user_email (email, user_id)
+        SELECT DISTINCT ON (LOWER(email)) LOWER(email), user_id
+        FROM user_account
+        ORDER BY LOWER(email), user_id;
+    END IF;
+END;
+';
+
+CREATE OR REPLACE FUNCTION claim_user_email() RETURNS trigger AS '
+BEGIN
+    IF TG_OP <> ''INSERT'' THEN
+        DELETE FROM user_email WHERE email = LOWER(OLD.email) AND user_id = OLD.user_id;
+    END IF;
+    IF TG_OP <> ''DELETE'' THEN
+        INSERT INTO user_email (email, user_id) VALUES (LOWER(NEW.email), NEW.user_id);
+    END IF;
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_account_email ON user_account;
+CREATE TRIGGER trg_user_account_email
+    AFTER INSERT OR DELETE ON user_account
+    FOR EACH ROW EXECUTE FUNCTION claim_user_email();
+
+DROP TRIGGER IF EXISTS trg_user_account_email_update ON user_account;
+CREATE TRIGGER trg_user_account_email_update
+    AFTER UPDATE OF email ON user_account
+    FOR EACH ROW
+    WHEN (LOWER(OLD.email) IS DISTINCT FROM LOWER(NEW.email))
+    EXECUTE FUNCTION claim_user_email();
+
+-- Cross-instance cache invalidation: NOTIFY user_account_changed with the user_id of every
+-- inserted / updated / deleted row (function body single-quoted: the init script splitter has no $$ support)
+CREATE OR REPLACE FUNCTION notify_user_account_change() RETURNS trigger AS '
+BEGIN
+    IF TG_OP = ''DELETE'' THEN
+        PERFORM pg_notify(''user_account_changed'', OLD.user_id::text);
+    ELSE
+        PERFORM pg_notify(''user_account_changed'', NEW.user_id::text);
+    END IF;
+    RETURN NULL;
+END;
+' LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_account_notify ON user_account;
+CREATE TRIGGER trg_user_account_notify
+    AFTER INSERT OR DELETE ON user_account
+    FOR EACH ROW EXECUTE FUNCTION notify_user_account_change();
+
+-- Updates notify only when something other than last_login changed: the batched last-login
+-- flush (LoginActivityRecorder) would otherwise send one NOTIFY per row
+DROP TRIGGER IF EXISTS trg_user_account_notify_update ON user_account;
+CREATE TRIGGER trg_user_account_notify_update
+    AFTER UPDATE ON user_account
+    FOR EACH ROW
+    WHEN ((OLD.tenant_id, OLD.organization, OLD.group_name, OLD.role, OLD.email, OLD.contact_no,
+           OLD.first_name, OLD.middle_name, OLD.last_name, OLD.password, OLD.status,
+           OLD.created_at, OLD.updated_at, OLD.version)
+          IS DISTINCT FROM
+          (NEW.tenant_id, NEW.organization, NEW.group_name, NEW.role, NEW.email, NEW.contact_no,
+           NEW.first_name, NEW.middle_name, NEW.last_name, NEW.password, NEW.status,
+           NEW.created_at, NEW.updated_at, NEW.version))
+    EXECUTE FUNCTION notify_user_account_change();
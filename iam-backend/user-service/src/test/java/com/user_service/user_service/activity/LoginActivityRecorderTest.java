@@ -0,0 +1,54 @@
+package com.user_service.user_service.activity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginActivityRecorderTest {
+
+	private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void keepsOnlyTheLatestLoginPerUser() {
+		LoginActivityRecorder recorder = new LoginActivityRecorder(null, registry, 100);
+		recorder.record(1, 10, T0.plusMinutes(5));
+		recorder.record(1, 10, T0);
+		recorder.record(1, 10, T0.plusMinutes(2));
+		recorder.record(2, 20, T0);
+
+		assertEquals(2, recorder.pendingCount());
+		assertEquals(2.0, registry.get("user.login_activity.pending").gauge().value());
+
+		List<Map<LoginActivityRecorder.UserKey, LocalDateTime>> batches = recorder.drain();
+		assertEquals(1, batches.size());
+		assertEquals(T0.plusMinutes(5), batches.get(0).get(new LoginActivityRecorder.UserKey(1, 10)));
+		assertEquals(0, recorder.pendingCount());
+	}
+
+	@Test
+	void drainSplitsIntoBatchesOfMaxBatch() {
+		LoginActivityRecorder recorder = new LoginActivityRecorder(null, registry, 2);
+		for (long id = 1; id <= 5; id++) {
+			recorder.record(7, id, T0);
+		}
+
+		assertEquals(List.of(2, 2, 1), recorder.drain().stream().map(Map::size).toList());
+		assertTrue(recorder.drain().isEmpty());
+	}
+
+	@Test
+	void updateSqlHasThreeParametersPerRow() {
+		String sql = LoginActivityRecorder.updateSql(2);
+
+		assertTrue(sql.contains("($1::bigint, $2::bigint, $3::timestamp), ($4::bigint, $5::bigint, $6::timestamp)"), sql);
+		assertTrue(sql.contains("u.tenant_id = v.tenant_id AND u.user_id = v.user_id"), sql);
+	}
+}
@@ -0,0 +1,113 @@
+package com.user_service.user_service.mapper;
+
+import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.entity.User;
+import com.user_service.user_service.entity.UserView;
+import com.user_service.user_service.enums.UserStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+class UserMapperTest {
+
+	private static final int WARMUP_ROWS = 20_000;
+	private static final int MEASURED_ROWS = 100_000;
+	private static final double MAX_MICROS_PER_ROW = 50.0;
+
+	/**
+	 * Regression benchmark for the read path: mapping a row must cost microseconds,
+	 * not a BCrypt round (tens of milliseconds) per user. Timing-sensitive, so it is
+	 * left out of the default build; run it with mvn test -Pbenchmark.
+	 */
+	@Test
+	@Tag("benchmark")
+	void toResponseFromViewCostsMicrosecondsPerRow(TestReporter reporter) {
+		UserView view = view(42L);
+
+		for (int i = 0; i < WARMUP_ROWS; i++) {
+			UserMapper.toResponse(view);
+		}
+
+		long start = System.nanoTime();
+		long checksum = 0;
+		for (int i = 0; i < MEASURED_ROWS; i++) {
+			checksum += UserMapper.toResponse(view).getUserId();
+		}
+		double microsPerRow = (double) (System.nanoTime() - start) / TimeUnit.MICROSECONDS.toNanos(1) / MEASURED_ROWS;
+
+		// TestReporter for IDEs / the console launcher, the log for surefire runs
+		String result = String.format(Locale.ROOT, "%.3f", microsPerRow);
+		reporter.publishEntry("UserMapper.toResponse(UserView) us/row", result);
+		log.info("UserMapper.toResponse(UserView): {} us/row over {} rows", result, MEASURED_ROWS);
+		assertEquals(42L * MEASURED_ROWS, checksum);
+		assertTrue(microsPerRow < MAX_MICROS_PER_ROW,
+				"read-path mapping took " + microsPerRow + " us/row");
+	}
+
+	@Test
+	void toResponseFromViewCopiesEveryColumn() {
+		UserView view = view(42L);
+
+		UserResponseDto dto = UserMapper.toResponse(view);
+
+		assertEquals(42L, dto.getUserId());
+		assertEquals("apollo", dto.getOrganization());
+		assertEquals("admins", dto.getGroupName());
+		assertEquals("ADMIN", dto.getRole());
+		assertEquals("user42@apollo.com", dto.getEmail());
+		assertEquals("555-0100", dto.getContactNo());
+		assertEquals("Ada", dto.getFirstName());
+		assertNull(dto.getMiddleName());
+		assertEquals("Lovelace", dto.getLastName());
+		assertEquals(view.getLastLogin(), dto.getLastLogin());
+		assertEquals(UserStatus.ACTIVE, dto.getStatus());
+		assertEquals(view.getCreatedAt(), dto.getCreatedAt());
+		assertEquals(view.getUpdatedAt(), dto.getUpdatedAt());
+		assertEquals(0L, dto.getVersion());
+	}
+
+	@Test
+	void toResponseFromEntityDoesNotTouchPassword() {
+		User user = User.builder()
+				.userId(7L)
+				.email("a@b.com")
+				.password(null) // encoding null used to throw
+				.status(UserStatus.ACTIVE)
+				.build();
+
+		UserResponseDto dto = UserMapper.toResponse(user);
+
+		assertEquals(7L, dto.getUserId());
+		assertEquals("a@b.com", dto.getEmail());
+	}
+
+	private static UserView view(Long id) {
+		LocalDateTime now = LocalDateTime.now();
+		return new UserView() {
+			public Long getUserId() { return id; }
+			public String getOrganization() { return "apollo"; }
+			public String getGroupName() { return "admins"; }
+			public String getRole() { return "ADMIN"; }
+			public String getEmail() { return "user" + id + "@apollo.com"; }
+			public String getContactNo() { return "555-0100"; }
+			public String getFirstName() { return "Ada"; }
+			public String getMiddleName() { return null; }
+			public String getLastName() { return "Lovelace"; }
+			public LocalDateTime getLastLogin() { return now; }
+			public UserStatus getStatus() { return UserStatus.ACTIVE; }
+			public LocalDateTime getCreatedAt() { return now; }
+			public LocalDateTime getUpdatedAt() { return now; }
+			public Long getVersion() { return 0L; }
+		};
+	}
+}
@@ -0,0 +1,65 @@
+package com.user_service.user_service.notification;
+
+import com.user_service.user_service.dto.AdminNotification;
+import com.user_service.user_service.dto.AdminNotificationDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdminNotifierTest {
+
+	private final List<AdminNotificationDigest> published = new CopyOnWriteArrayList<>();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private AdminNotifier notifier(long windowMs, int maxBatch, int bufferSize) {
+		SimpMessagingTemplate template = new SimpMessagingTemplate((Message<?> message, long timeout) -> {
+			published.add((AdminNotificationDigest) message.getPayload());
+			return true;
+		});
+		return new AdminNotifier(template, registry, windowMs, maxBatch, bufferSize);
+	}
+
+	@Test
+	void coalescesNotificationsIntoDigestsBoundedByMaxBatch() {
+		AdminNotifier notifier = notifier(60_000, 2, 16);
+		notifier.start();
+		for (long i = 1; i <= 5; i++) {
+			notifier.send(notification(i));
+		}
+		notifier.stop();
+
+		assertEquals(List.of(2, 2, 1), published.stream().map(AdminNotificationDigest::getCount).toList());
+		assertEquals(5.0, registry.get("user.admin_notifications.sent").counter().count());
+		assertEquals(3L, registry.get("user.admin_notifications.batch.size").summary().count());
+	}
+
+	@Test
+	void dropsWhenBufferIsFullAndReportsItInTheNextDigest() {
+		AdminNotifier notifier = notifier(60_000, 100, 4);
+		for (long i = 1; i <= 6; i++) {
+			notifier.send(notification(i)); // nothing drains yet
+		}
+		notifier.start();
+		notifier.stop();
+
+		assertEquals(1, published.size());
+		assertEquals(4, published.get(0).getCount());
+		assertEquals(2L, published.get(0).getDropped());
+		assertEquals(2.0, registry.get("user.admin_notifications.dropped").counter().count());
+	}
+
+	private static AdminNotification notification(long userId) {
+		return AdminNotification.builder()
+				.type("USER_INACTIVATED")
+				.userId(userId)
+				.at(LocalDateTime.now())
+				.build();
+	}
+}
@@ -0,0 +1,96 @@
+package com.user_service.user_service.search;
+
+import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.entity.UserView;
+import com.user_service.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EmailSearchIndexTest {
+
+	private EmailSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new EmailSearchIndex(null, new SimpleMeterRegistry());
+		index.put(user(3L, "Carol.Smith@Apollo.com"));
+		index.put(user(1L, "alice@apollo.com"));
+		index.put(user(2L, "bob@zen.io"));
+		index.put(user(4L, "dave@apollo.org"));
+	}
+
+	@Test
+	void matchesSubstringsCaseInsensitivelyInUserIdOrder() {
+		assertEquals(List.of(1L, 3L, 4L), index.search("APOLLO", 10));
+		assertEquals(List.of(3L), index.search("smith@", 10));
+		assertEquals(List.of(), index.search("apollox", 10));
+	}
+
+	@Test
+	void shortQueriesUsePrefixRange() {
+		assertEquals(List.of(1L, 2L, 3L, 4L), index.search("o", 10));
+		assertEquals(List.of(2L), index.search("io", 10));
+		assertEquals(List.of(2L), index.search("b@", 10));
+	}
+
+	@Test
+	void respectsLimit() {
+		assertEquals(List.of(1L, 3L), index.search("apollo", 2));
+		assertEquals(List.of(1L, 2L), index.search("o", 2));
+	}
+
+	@Test
+	void updateAndRemoveKeepPostingsInSync() {
+		index.put(user(2L, "bob@apollo.com"));
+		assertEquals(List.of(1L, 2L, 3L, 4L), index.search("apollo", 10));
+		assertTrue(index.search("zen", 10).isEmpty());
+
+		index.remove(1L);
+		assertEquals(List.of(2L, 3L, 4L), index.search("apollo", 10));
+		assertEquals(List.of(2L, 3L, 4L), index.search("a", 10));
+	}
+
+	@Test
+	void scanDoesNotUndoWritesMadeWhileItRuns() {
+		UserRepository repository = mock(UserRepository.class);
+		Sinks.Many<UserView> rows = Sinks.many().unicast().onBackpressureBuffer();
+		when(repository.findAllProjectedBy()).thenReturn(rows.asFlux());
+		EmailSearchIndex scanned = new EmailSearchIndex(repository, new SimpleMeterRegistry());
+		scanned.put(user(9L, "gone@apollo.com"));
+
+		scanned.build();
+		rows.tryEmitNext(view(1L, "alice@apollo.com"));
+		scanned.remove(2L);                          // deleted after the scan read it
+		scanned.put(user(3L, "carol@zen.io"));       // changed after the scan read it
+		rows.tryEmitNext(view(2L, "bob@apollo.com"));
+		rows.tryEmitNext(view(3L, "carol@apollo.com"));
+		scanned.put(user(4L, "dave@apollo.com"));    // created after the scan started
+		assertFalse(scanned.isReady());
+		rows.tryEmitComplete();
+
+		assertTrue(scanned.isReady());
+		assertEquals(List.of(1L, 4L), scanned.search("apollo", 10));
+		assertEquals(List.of(3L), scanned.search("zen", 10));
+	}
+
+	private static UserView view(Long id, String email) {
+		UserView view = mock(UserView.class);
+		when(view.getUserId()).thenReturn(id);
+		when(view.getEmail()).thenReturn(email);
+		return view;
+	}
+
+	private static UserResponseDto user(Long id, String email) {
+		return UserResponseDto.builder().userId(id).email(email).build();
+	}
+}
@@ -0,0 +1,86 @@
+package com.user_service.user_service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+	@Test
+	void encodesOffTheCallingThread() {
+		PasswordHasher hasher = new PasswordHasher(new SimpleMeterRegistry(), 1, 4, 10);
+		try {
+			String caller = Thread.currentThread().getName();
+			String[] worker = new String[1];
+
+			String hash = Mono.defer(() -> hasher.encode("secret12"))
+					.doOnNext(h -> worker[0] = Thread.currentThread().getName())
+					.block();
+
+			assertTrue(new BCryptPasswordEncoder().matches("secret12", hash));
+			assertNotEquals(caller, worker[0]);
+			assertTrue(worker[0].startsWith("bcrypt-hash-"));
+		} finally {
+			hasher.shutdown();
+		}
+	}
+
+	@Test
+	void rejectsWith503WhenQueueIsFull() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		PasswordHasher hasher = new PasswordHasher(registry, 1, 1, 10);
+		try {
+			List<String> outcomes = Flux.range(0, 8)
+					.flatMap(i -> hasher.encode("secret" + i)
+							.map(h -> "ok")
+							.onErrorResume(ResponseStatusException.class,
+									ex -> Mono.just(String.valueOf(ex.getStatusCode().value()))))
+					.collectList()
+					.block();
+
+			long rejected = outcomes.stream().filter(o -> o.equals(String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()))).count();
+			assertTrue(outcomes.contains("ok"));
+			assertTrue(rejected > 0, "expected some requests to be rejected: " + outcomes);
+			assertEquals((double) rejected, registry.get("user.password.hash.rejected").counter().count());
+		} finally {
+			hasher.shutdown();
+		}
+	}
+
+	@Test
+	void matchesOnThePoolAndNeverMatchesAMissingHash() {
+		PasswordHasher hasher = new PasswordHasher(new SimpleMeterRegistry(), 1, 4, 4);
+		try {
+			String hash = new BCryptPasswordEncoder(4).encode("secret12");
+
+			assertTrue(hasher.matches("secret12", hash).block());
+			assertFalse(hasher.matches("wrong", hash).block());
+			assertFalse(hasher.matches("dummy-password", null).block());
+		} finally {
+			hasher.shutdown();
+		}
+	}
+
+	@Test
+	void flagsHashesBelowTheConfiguredStrength() {
+		PasswordHasher hasher = new PasswordHasher(new SimpleMeterRegistry(), 1, 4, 5);
+		try {
+			assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("secret12")));
+			assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(5).encode("secret12")));
+			assertFalse(hasher.needsRehash("not-a-bcrypt-hash"));
+		} finally {
+			hasher.shutdown();
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.user_service.user_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.user_service.user_service.dto.UserImportEvent;
+import com.user_service.user_service.search.EmailSearchIndex;
+import com.user_service.user_service.security.PasswordHasher;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class UserImportServiceImplTest {
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private R2dbcEntityTemplate template;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private Validator validator;
+
+	private final PasswordHasher passwordHasher = mock(PasswordHasher.class);
+
+	// every run imports under its own domain, removed again after each test
+	private final String domain = "import-" + System.nanoTime() + ".test";
+
+	private UserImportServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		when(passwordHasher.encode(anyString())).thenAnswer(inv -> switch (inv.<String>getArgument(0)) {
+			case "busy" -> Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Password hashing busy"));
+			case "broken" -> Mono.error(new IllegalStateException("encoder exploded"));
+			default -> Mono.just("hashed:" + inv.getArgument(0));
+		});
+		service = new UserImportServiceImpl(databaseClient, template, passwordHasher,
+				mock(EmailSearchIndex.class), objectMapper, validator, 2, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		databaseClient.sql("DELETE FROM user_account WHERE email LIKE :pattern")
+				.bind("pattern", "%@" + domain)
+				.then()
+				.block();
+	}
+
+	@Test
+	void splitsPlainAndQuotedCsvFields() {
+		assertEquals(List.of("a", "b", "", "c"), UserImportServiceImpl.parseCsvLine("a,b,,c"));
+		assertEquals(List.of("Smith, John", "say \"hi\"", "x"),
+				UserImportServiceImpl.parseCsvLine("\"Smith, John\",\"say \"\"hi\"\"\",x"));
+		assertEquals(List.of(""), UserImportServiceImpl.parseCsvLine(""));
+	}
+
+	@Test
+	void reportsProgressAfterEveryBatch() {
+		List<UserImportEvent> events = importJson(user("a"), user("b"), user("c"), user("d"), user("e"));
+
+		assertEquals(List.of(2L, 4L, 5L), events.stream()
+				.filter(e -> e.getType().equals("progress"))
+				.map(UserImportEvent::getProcessed)
+				.toList());
+		assertSummary(events.get(events.size() - 1), 5, 5, 0);
+		assertEquals(5L, countImported());
+	}
+
+	@Test
+	void dropsDuplicateEmailsWithinTheFile() {
+		// a and A share a batch, the last a arrives in the next one
+		List<UserImportEvent> events = importJson(user("a"), user("A"), user("b"), user("a"));
+
+		assertEquals(List.of(
+						error(2, "a", "Duplicate email in file"),
+						error(4, "a", "Email already exists")),
+				errors(events));
+		assertSummary(events.get(events.size() - 1), 4, 2, 2);
+		assertEquals(2L, countImported());
+	}
+
+	@Test
+	void skipsEmailsThatAlreadyExist() {
+		importJson(user("a"));
+
+		List<UserImportEvent> events = importJson(user("b"), user("a"));
+
+		assertEquals(List.of(error(2, "a", "Email already exists")), errors(events));
+		assertSummary(events.get(events.size() - 1), 2, 1, 1);
+		assertEquals(2L, countImported());
+	}
+
+	@Test
+	void failsOnlyTheOffendingRowsWithTheirOwnCause() {
+		List<UserImportEvent> events = importJson(
+				user("a"),
+				"{not json",
+				"",
+				"{\"firstName\":\"No\",\"email\":\"b@" + domain + "\",\"organization\":\"acme\"}",
+				user("c", "broken"),
+				user("d", "busy"),
+				user("e"));
+
+		List<UserImportEvent> errors = errors(events);
+		assertEquals(4, errors.size());
+		assertEquals(2L, errors.get(0).getLine());
+		assertEquals(error(4, "b", "Last name is required"), errors.get(1));
+		assertEquals(error(5, "c", "Password hashing failed: encoder exploded"), errors.get(2));
+		assertEquals(error(6, "d", "Server busy hashing passwords, row not imported"), errors.get(3));
+		assertSummary(events.get(events.size() - 1), 6, 2, 4);
+		assertEquals(2L, countImported());
+	}
+
+	private List<UserImportEvent> importJson(String... lines) {
+		return service.importUsers(Flux.fromArray(lines), false).collectList().block();
+	}
+
+	private String user(String local) {
+		return user(local, "Secret123!");
+	}
+
+	private String user(String local, String password) {
+		return "{\"firstName\":\"Imp\",\"lastName\":\"Orter\",\"email\":\"" + local + "@" + domain
+				+ "\",\"organization\":\"acme\",\"password\":\"" + password + "\"}";
+	}
+
+	private UserImportEvent error(long line, String local, String message) {
+		return UserImportEvent.builder()
+				.type("error")
+				.line(line)
+				.email(local + "@" + domain)
+				.message(message)
+				.build();
+	}
+
+	private static List<UserImportEvent> errors(List<UserImportEvent> events) {
+		return events.stream().filter(e -> e.getType().equals("error")).toList();
+	}
+
+	private static void assertSummary(UserImportEvent summary, long processed, long inserted, long failed) {
+		assertEquals("summary", summary.getType());
+		assertEquals(processed, summary.getProcessed());
+		assertEquals(inserted, summary.getInserted());
+		assertEquals(failed, summary.getFailed());
+	}
+
+	private long countImported() {
+		return databaseClient.sql("SELECT COUNT(*) AS n FROM user_account WHERE email LIKE :pattern")
+				.bind("pattern", "%@" + domain)
+				.map(row -> row.get("n", Long.class))
+				.one()
+				.block();
+	}
+}
@@ -0,0 +1,108 @@
+package com.user_service.user_service.service;
+
+import com.user_service.user_service.cache.UserCache;
+import com.user_service.user_service.dto.PageResponse;
+import com.user_service.user_service.dto.UserResponseDto;
+import com.user_service.user_service.enums.CountMode;
+import com.user_service.user_service.search.EmailSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class UserServiceImplTest {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private EmailSearchIndex emailSearchIndex;
+
+	@Autowired
+	private UserCache userCache;
+
+	// a tenant of its own per run, removed again after each test
+	private final String organization = "padded-org-" + System.nanoTime();
+
+	@BeforeEach
+	void setUp() {
+		// stored the way clients sent it: padded, differently cased
+		insert(" " + organization + " ", "a");
+		insert(organization.toUpperCase(), "b");
+	}
+
+	@AfterEach
+	void tearDown() {
+		databaseClient.sql("DELETE FROM user_account WHERE email LIKE :pattern")
+				.bind("pattern", "%@" + organization + ".test")
+				.then()
+				.block();
+	}
+
+	@Test
+	void organizationSearchMatchesPaddedAndDifferentlyCasedNames() {
+		for (String query : List.of(organization, "  " + organization + " ", organization.toUpperCase())) {
+			PageResponse<UserResponseDto> page = userService
+					.searchByOrganization(query, 0, 10, "userId", "asc", CountMode.EXACT)
+					.block();
+
+			assertEquals(List.of("a", "b"), locals(page.content()), () -> "'" + query + "'");
+			assertEquals(2L, page.totalElements(), () -> "'" + query + "'");
+		}
+	}
+
+	@Test
+	void exportAgreesWithOrganizationSearch() {
+		List<UserResponseDto> exported = userService.exportUsers(" " + organization + "  ", null)
+				.collectList()
+				.block();
+
+		assertEquals(List.of("a", "b"), locals(exported));
+	}
+
+	@Test
+	void emailSearchServesTheCurrentLastLogin() throws InterruptedException {
+		for (int i = 0; i < 100 && !emailSearchIndex.isReady(); i++) {
+			Thread.sleep(100); // built asynchronously on startup
+		}
+		UserResponseDto user = userService.getUserByEmail(null, "a@" + organization + ".test").block();
+		assertNull(user.getLastLogin());
+		emailSearchIndex.put(user);
+
+		// the login flush skips the change notification, as LoginActivityRecorder's does
+		databaseClient.sql("UPDATE user_account SET last_login = now() WHERE user_id = :id")
+				.bind("id", user.getUserId())
+				.then()
+				.block();
+		userCache.invalidate(user.getUserId()); // as the cache TTL would
+
+		List<UserResponseDto> found = userService.searchByEmail("a@" + organization, 10).collectList().block();
+		assertEquals(List.of(user.getUserId()), found.stream().map(UserResponseDto::getUserId).toList());
+		assertNotNull(found.get(0).getLastLogin());
+	}
+
+	private void insert(String storedOrganization, String local) {
+		databaseClient.sql("INSERT INTO user_account (tenant_id, organization, email, first_name, last_name, created_at)"
+						+ " VALUES (tenant_key(:organization), :organization, :email, 'Pad', 'Ded', now())")
+				.bind("organization", storedOrganization)
+				.bind("email", local + "@" + organization + ".test")
+				.then()
+				.block();
+	}
+
+	private static List<String> locals(List<UserResponseDto> users) {
+		return users.stream().map(u -> u.getEmail().substring(0, u.getEmail().indexOf('@'))).toList();
+	}
+}
@@ -0,0 +1,32 @@
+package com.user_service.user_service.util;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class TenantKeySqlTest {
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@ParameterizedTest
+	@NullSource
+	@ValueSource(strings = {"", "acme", "  ACME ", "Acme Corp", "\tacme\n", "ÄCME", "Straße", "İstanbul", "  日本 "})
+	void matchesSqlTenantKeyFunction(String organization) {
+		assertEquals(sqlTenantKey(organization), TenantKey.of(organization), () -> "tenant_key('" + organization + "')");
+	}
+
+	private long sqlTenantKey(String organization) {
+		DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT tenant_key(CAST(:organization AS TEXT)) AS k");
+		spec = organization == null
+				? spec.bindNull("organization", String.class)
+				: spec.bind("organization", organization);
+		return spec.map(row -> row.get("k", Long.class)).one().block();
+	}
+}
@@ -0,0 +1,26 @@
+package com.user_service.user_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TenantKeyTest {
+
+	@Test
+	void matchesSqlTenantKeyFunction() {
+		// SELECT tenant_key('acme') / ('x' || left(md5('acme'), 16))::bit(64)::bigint
+		assertEquals(6033949328259743374L, TenantKey.of("acme"));
+	}
+
+	@Test
+	void ignoresCaseAndSurroundingWhitespace() {
+		assertEquals(TenantKey.of("acme"), TenantKey.of("  ACME "));
+		assertNotEquals(TenantKey.of("acme"), TenantKey.of("acme corp"));
+	}
+
+	@Test
+	void missingOrganizationMapsToEmptyKey() {
+		assertEquals(TenantKey.of(""), TenantKey.of(null));
+	}
+}